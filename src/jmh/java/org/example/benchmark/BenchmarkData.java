@@ -0,0 +1,55 @@
+package org.example.benchmark;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.model.PriceSeries;
+import org.example.model.Symbol;
+import org.example.service.impl.CryptoServiceImpl;
+import org.example.service.impl.PriceSeriesLoader;
+import org.example.service.impl.SymbolRegistry;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Synthetic data sets and {@link CryptoServiceImpl} instances reading them, wired like the application does. Data
+ * sets are generated once into {@code target/benchmark-data/<rowsPerSymbol>} (override with
+ * {@code -Dbenchmark.data.dir}) and reused by later runs.
+ */
+final class BenchmarkData {
+
+  private BenchmarkData() {
+  }
+
+  static Path dataSet(int rowsPerSymbol) throws IOException {
+    Path root = Path.of(System.getProperty("benchmark.data.dir", "target/benchmark-data"));
+    return SyntheticDataGenerator.generate(root.resolve(Integer.toString(rowsPerSymbol)), rowsPerSymbol);
+  }
+
+  static CryptoServiceImpl service(Path dataSet) {
+    ResourceLoader resourceLoader = new DefaultResourceLoader() {
+      @Override
+      public Resource getResource(String location) {
+        return new FileSystemResource(dataSet.resolve(location.substring(location.lastIndexOf('/') + 1)));
+      }
+    };
+    PriceSeriesLoader loader = new PriceSeriesLoader(resourceLoader, new SimpleMeterRegistry());
+    AsyncLoadingCache<Symbol, PriceSeries> cache = Caffeine.newBuilder()
+            .executor(ForkJoinPool.commonPool())
+            .removalListener((Symbol symbol, PriceSeries series, RemovalCause cause) -> {
+              if (cause != RemovalCause.SIZE) {
+                loader.changed(symbol);
+              }
+            })
+            .recordStats()
+            .buildAsync(loader);
+    return new CryptoServiceImpl(cache, loader, new SymbolRegistry(resourceLoader));
+  }
+}
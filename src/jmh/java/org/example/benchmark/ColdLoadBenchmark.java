@@ -0,0 +1,47 @@
+package org.example.benchmark;
+
+import org.example.exception.InvalidDateException;
+import org.example.model.Crypto;
+import org.example.service.impl.CryptoServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for a first request to load every symbol of a synthetic data set into an empty cache.
+ *
+ * <p>Run with {@code mvn -Pjmh compile exec:exec -Djmh.args="ColdLoadBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class ColdLoadBenchmark {
+
+  @Param({"10000", "1000000", "10000000"})
+  private int rowsPerSymbol;
+
+  private Path dataSet;
+  private CryptoServiceImpl cryptoService;
+
+  @Setup(Level.Trial)
+  public void generate() throws IOException {
+    dataSet = BenchmarkData.dataSet(rowsPerSymbol);
+  }
+
+  @Setup(Level.Iteration)
+  public void emptyCache() {
+    cryptoService = BenchmarkData.service(dataSet);
+  }
+
+  @Benchmark
+  public Map<String, List<Crypto>> loadAllSymbols() throws InvalidDateException {
+    return cryptoService.getStatisticsByMonthAndYear(2022, 1);
+  }
+}
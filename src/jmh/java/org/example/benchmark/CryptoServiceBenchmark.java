@@ -0,0 +1,83 @@
+package org.example.benchmark;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.example.exception.InvalidDateException;
+import org.example.model.Crypto;
+import org.example.model.Symbol;
+import org.example.service.impl.CryptoServiceImpl;
+import org.example.service.impl.util.CryptoServiceUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every {@link org.example.service.spec.CryptoService} operation against warm caches of synthetic data, reporting
+ * throughput and sampled latency percentiles.
+ *
+ * <p>Run with {@code mvn -Pjmh compile exec:exec -Djmh.args="CryptoServiceBenchmark -prof gc"} to add allocation
+ * rates, {@code -p rowsPerSymbol=10000} to restrict the data set sizes. The 10M rows data set needs a large heap for
+ * the operations returning every row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class CryptoServiceBenchmark {
+
+  private static final Symbol BTC = Symbol.of("BTC");
+
+  @Param({"10000", "1000000", "10000000"})
+  private int rowsPerSymbol;
+
+  private CryptoServiceImpl cryptoService;
+  private LocalDate day;
+  private int year;
+  private int month;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    cryptoService = BenchmarkData.service(BenchmarkData.dataSet(rowsPerSymbol));
+    cryptoService.readCSVFiles(SyntheticDataGenerator.SYMBOLS.toArray(Symbol[]::new));
+    LocalDateTime middle = CryptoServiceUtil.toLocalDateTime(SyntheticDataGenerator.middleEpochMilli(rowsPerSymbol));
+    day = middle.toLocalDate();
+    year = middle.getYear();
+    month = middle.getMonthValue();
+  }
+
+  @Benchmark
+  public List<Crypto> readCSVFiles() {
+    return cryptoService.readCSVFiles(BTC);
+  }
+
+  @Benchmark
+  public Map<String, List<Crypto>> getStatisticsByMonthAndYear() throws InvalidDateException {
+    return cryptoService.getStatisticsByMonthAndYear(year, month);
+  }
+
+  @Benchmark
+  public List<Pair<String, Crypto>> getStatisticsForCertainCrypto() {
+    return cryptoService.getStatisticsForCertainCrypto(BTC);
+  }
+
+  @Benchmark
+  public List<Crypto> calculateNormalizedRangesAndSort() {
+    return cryptoService.calculateNormalizedRangesAndSort();
+  }
+
+  @Benchmark
+  public Crypto getCryptoWithHighestNormalizedRange() {
+    return cryptoService.getCryptoWithHighestNormalizedRange(day);
+  }
+
+  @Benchmark
+  public List<Double> getAllPrices() {
+    return cryptoService.getAllPrices(BTC);
+  }
+}
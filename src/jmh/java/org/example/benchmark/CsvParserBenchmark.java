@@ -0,0 +1,134 @@
+package org.example.benchmark;
+
+import com.opencsv.CSVReader;
+import com.opencsv.bean.AbstractBeanField;
+import com.opencsv.bean.CsvBindByPosition;
+import com.opencsv.bean.CsvCustomBindByPosition;
+import com.opencsv.bean.CsvToBeanBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+import lombok.Getter;
+import lombok.Setter;
+import org.example.model.PriceSeries;
+import org.example.model.Symbol;
+import org.example.service.impl.util.PriceCsvParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link PriceCsvParser} with the OpenCSV based loading it replaced: {@link CSVReader} into primitive
+ * columns and, before that, reflective bean binding into one object per row.
+ *
+ * <p>Run with {@code mvn -Pjmh compile exec:exec -Djmh.args="CsvParserBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CsvParserBenchmark {
+
+  private static final Symbol BTC = Symbol.of("BTC");
+
+  @Param({"1000000", "5000000"})
+  private int rows;
+
+  private Path file;
+
+  @Setup(Level.Trial)
+  public void writeFile() throws IOException {
+    file = Files.createTempFile("BTC_values", ".csv");
+    Files.delete(file);
+    SyntheticDataGenerator.write(file, BTC, rows, 46813.21, new Random(42));
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteFile() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Benchmark
+  public PriceSeries priceCsvParser() throws IOException {
+    try (InputStream inputStream = Files.newInputStream(file)) {
+      return PriceCsvParser.parse(BTC, inputStream);
+    }
+  }
+
+  @Benchmark
+  public PriceSeries openCsvReader() throws IOException, CsvValidationException {
+    try (CSVReader csvReader = new CSVReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+      csvReader.skip(1);
+      long[] timestamps = new long[1024];
+      double[] prices = new double[1024];
+      int size = 0;
+      String[] nextLine;
+      while ((nextLine = csvReader.readNext()) != null) {
+        if (nextLine.length >= 3) {
+          if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            prices = Arrays.copyOf(prices, size * 2);
+          }
+          timestamps[size] = Long.parseLong(nextLine[0].trim());
+          prices[size] = Double.parseDouble(nextLine[2].trim());
+          size++;
+        }
+      }
+      return PriceSeries.of(BTC, timestamps, prices, size);
+    }
+  }
+
+  @Benchmark
+  public List<Row> openCsvBeanBinding() throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      return new CsvToBeanBuilder<Row>(reader)
+              .withSkipLines(1)
+              .withType(Row.class)
+              .withIgnoreLeadingWhiteSpace(true)
+              .build()
+              .parse();
+    }
+  }
+
+  @Getter
+  @Setter
+  public static class Row {
+
+    @CsvCustomBindByPosition(position = 0, converter = LocalDateTimeConverter.class)
+    private LocalDateTime timestamp;
+
+    @CsvCustomBindByPosition(position = 1, converter = SymbolConverter.class)
+    private Symbol symbol;
+
+    @CsvBindByPosition(position = 2)
+    private Double price;
+  }
+
+  public static class LocalDateTimeConverter extends AbstractBeanField<String, LocalDateTime> {
+
+    @Override
+    protected Object convert(String milliseconds) {
+      return Instant.ofEpochMilli(Long.parseLong(milliseconds)).atZone(ZoneId.systemDefault()).toLocalDateTime();
+    }
+  }
+
+  public static class SymbolConverter extends AbstractBeanField<String, Symbol> {
+
+    @Override
+    protected Object convert(String name) {
+      return Symbol.of(name);
+    }
+  }
+}
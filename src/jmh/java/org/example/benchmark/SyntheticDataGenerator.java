@@ -0,0 +1,74 @@
+package org.example.benchmark;
+
+import org.example.model.Symbol;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Writes {@code <SYMBOL>_values.csv} files in the format of {@code src/main/resources/external}: one tick per minute
+ * per symbol starting at {@link #START_EPOCH_MILLI}, prices following a random walk.
+ *
+ * <p>Standalone usage: {@code SyntheticDataGenerator <directory> <rowsPerSymbol>}
+ */
+public final class SyntheticDataGenerator {
+
+  public static final long START_EPOCH_MILLI = 1641009600000L;
+  public static final long STEP_MILLIS = 60_000L;
+  public static final List<Symbol> SYMBOLS = Stream.of("BTC", "DOGE", "ETH", "LTC", "XRP").map(Symbol::of).toList();
+
+  private SyntheticDataGenerator() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    generate(Path.of(args[0]), Integer.parseInt(args[1]));
+  }
+
+  /**
+   * Generate the files of the {@link #SYMBOLS} into the directory, unless a previous run already did
+   *
+   * @return the directory
+   */
+  public static Path generate(Path directory, int rowsPerSymbol) throws IOException {
+    Files.createDirectories(directory);
+    Random random = new Random(rowsPerSymbol);
+    for (Symbol symbol : SYMBOLS) {
+      Path file = directory.resolve(symbol + "_values.csv");
+      if (!Files.exists(file)) {
+        write(file, symbol, rowsPerSymbol, 1 + random.nextInt(50_000), random);
+      }
+    }
+    return directory;
+  }
+
+  /**
+   * @return epoch millis of the tick in the middle of a generated file
+   */
+  public static long middleEpochMilli(int rowsPerSymbol) {
+    return START_EPOCH_MILLI + rowsPerSymbol / 2 * STEP_MILLIS;
+  }
+
+  public static void write(Path file, Symbol symbol, int rows, double startPrice, Random random) throws IOException {
+    Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+    try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+      writer.write("timestamp,symbol,price\n");
+      double price = startPrice;
+      for (int i = 0; i < rows; i++) {
+        price = Math.max(0.0001, price * (1 + random.nextGaussian() * 0.002));
+        writer.write(Long.toString(START_EPOCH_MILLI + i * STEP_MILLIS));
+        writer.write(',');
+        writer.write(symbol.name());
+        writer.write(',');
+        writer.write(Double.toString(Math.round(price * 10_000) / 10_000d));
+        writer.write('\n');
+      }
+    }
+    Files.move(temporaryFile, file);
+  }
+}
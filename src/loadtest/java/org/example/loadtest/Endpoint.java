@@ -0,0 +1,100 @@
+package org.example.loadtest;
+
+import org.example.benchmark.SyntheticDataGenerator;
+import org.example.model.Symbol;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * An endpoint of the api with the requests sent to it, varying their parameters over the generated data set. Clients
+ * cycle through the same variants on every run so that runs stay comparable.
+ */
+record Endpoint(String name, List<HttpRequest> requests) {
+
+  private static final int VARIANTS = 64;
+
+  static List<Endpoint> all(URI baseUri, int rowsPerSymbol) {
+    Instant first = Instant.ofEpochMilli(SyntheticDataGenerator.START_EPOCH_MILLI);
+    Instant last = first.plusMillis((rowsPerSymbol - 1) * SyntheticDataGenerator.STEP_MILLIS);
+    Variants variants = new Variants(baseUri, first, last);
+    return List.of(
+            variants.get("sorted", random ->
+                    "/crypto/sorted-crypto/normalized-range?offset=" + random.nextInt(rowsPerSymbol) + "&limit=100"),
+            variants.get("sorted-stream", random ->
+                    "/crypto/sorted-crypto/normalized-range/stream?offset=" + random.nextInt(rowsPerSymbol)
+                            + "&limit=1000"),
+            variants.get("statistics", random -> "/crypto/statistics/" + variants.symbol(random)),
+            variants.get("month", random -> {
+              YearMonth month = YearMonth.from(variants.day(random));
+              return "/crypto/statistics/year/" + month.getYear() + "/month/" + month.getMonthValue();
+            }),
+            variants.get("statistics-batch", random -> "/crypto/statistics/batch?symbols=" + variants.symbol(random)
+                    + "," + variants.symbol(random) + "&months=" + YearMonth.from(variants.day(random))
+                    + "," + YearMonth.from(variants.day(random))),
+            variants.post("highest-normalized-range", "/crypto/highest-normalized-range/",
+                    random -> "\"" + variants.day(random) + "\""),
+            variants.get("ranking", random -> "/crypto/ranking/normalized-range?window="
+                    + List.of("24h", "7d", "30d", "all").get(random.nextInt(4)) + "&top=3"),
+            variants.get("candles", random -> {
+              boolean hourly = random.nextBoolean();
+              Instant from = variants.instant(random);
+              return "/crypto/candles?symbols=" + variants.symbol(random) + "&from=" + from
+                      + "&to=" + from.plus(hourly ? 7 : 90, ChronoUnit.DAYS) + "&interval=" + (hourly ? "1h" : "1d");
+            }),
+            variants.get("cache-statistics", random -> "/crypto/cache/statistics"),
+            variants.get("indicators", random -> {
+              Instant from = variants.instant(random);
+              return "/crypto/analytics/indicators?symbols=" + variants.symbol(random) + "&from=" + from
+                      + "&to=" + from.plus(90, ChronoUnit.DAYS) + "&interval=1d&window=7";
+            }),
+            variants.get("correlations", random -> {
+              Instant from = variants.instant(random);
+              return "/crypto/analytics/correlations?from=" + from + "&to=" + from.plus(30, ChronoUnit.DAYS)
+                      + "&interval=1h";
+            }));
+  }
+
+  private record Variants(URI baseUri, Instant first, Instant last) {
+
+    private Endpoint get(String name, Function<Random, String> path) {
+      return new Endpoint(name, variants(name, random -> HttpRequest.newBuilder(baseUri.resolve(path.apply(random)))
+              .GET()
+              .build()));
+    }
+
+    private Endpoint post(String name, String path, Function<Random, String> body) {
+      return new Endpoint(name, variants(name, random -> HttpRequest.newBuilder(baseUri.resolve(path))
+              .header("Content-Type", "application/json")
+              .POST(HttpRequest.BodyPublishers.ofString(body.apply(random)))
+              .build()));
+    }
+
+    private static List<HttpRequest> variants(String name, Function<Random, HttpRequest> request) {
+      Random random = new Random(name.hashCode());
+      return IntStream.range(0, VARIANTS).mapToObj(i -> request.apply(random)).toList();
+    }
+
+    private Symbol symbol(Random random) {
+      return SyntheticDataGenerator.SYMBOLS.get(random.nextInt(SyntheticDataGenerator.SYMBOLS.size()));
+    }
+
+    private Instant instant(Random random) {
+      return first.plus(random.nextLong(Math.max(1, ChronoUnit.HOURS.between(first, last))), ChronoUnit.HOURS)
+              .truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private LocalDate day(Random random) {
+      return LocalDate.ofInstant(instant(random), ZoneId.systemDefault());
+    }
+  }
+}
@@ -0,0 +1,195 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.example.Main;
+import org.example.benchmark.SyntheticDataGenerator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the application in-process, with the {@code loadtest} profile disabling the rate limiting, over a synthetic
+ * data set (see {@link SyntheticDataGenerator}), then measures its endpoints one after the other: every client sends
+ * a request, waits for the response and sends the next one, during a warm-up then a measured period. The response
+ * cache is disabled unless {@code --response-cache=true}, as clients cycling through the same requests would
+ * otherwise only measure its hits.
+ *
+ * <p>Usage: {@code mvn -Ploadtest compile exec:exec -Dloadtest.args="--rows=1000000 --concurrency=16 --warmup=5
+ * --duration=20 --endpoints=sorted,candles --response-cache=false --output=target/loadtest/results.json"}, every argument being optional
+ */
+public final class LoadTest {
+
+  private LoadTest() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options = LoadTestOptions.parse(args);
+    Path dataSet = SyntheticDataGenerator.generate(options.dataDirectory(), options.rowsPerSymbol());
+    String startedAt = Instant.now().toString();
+    try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Main.class)
+            .profiles("loadtest")
+            .run("--server.port=0", "--crypto.data.location=file:" + dataSet.toAbsolutePath() + "/",
+                    "--response.cache.enabled=" + options.responseCache())) {
+      URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+      List<Endpoint> endpoints = endpoints(options, baseUri);
+      HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+      List<LoadTestReport.EndpointResult> results = new ArrayList<>();
+      System.out.println("Response cache " + (options.responseCache() ? "enabled" : "disabled"));
+      System.out.printf("%-26s %10s %8s %12s %10s %10s %10s %10s %8s%n",
+              "endpoint", "requests", "errors", "requests/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "gc ms");
+      for (Endpoint endpoint : endpoints) {
+        LoadTestReport.EndpointResult result = measure(endpoint, client, options);
+        results.add(result);
+        System.out.printf("%-26s %10d %8d %12.1f %10.3f %10.3f %10.3f %10.3f %8d%n",
+                result.name(), result.requests(), result.errors(), result.throughputPerSecond(),
+                result.p50Millis(), result.p99Millis(), result.p999Millis(), result.maxMillis(), result.gcMillis());
+      }
+      write(options.output(), new LoadTestReport(
+              startedAt,
+              Runtime.version().toString(),
+              Runtime.getRuntime().availableProcessors(),
+              Runtime.getRuntime().maxMemory(),
+              options.rowsPerSymbol(),
+              options.concurrency(),
+              options.warmupSeconds(),
+              options.durationSeconds(),
+              options.responseCache(),
+              results));
+      System.out.println("Results written to " + options.output().toAbsolutePath());
+    }
+  }
+
+  private static List<Endpoint> endpoints(LoadTestOptions options, URI baseUri) {
+    List<Endpoint> endpoints = Endpoint.all(baseUri, options.rowsPerSymbol());
+    if (options.endpoints().isEmpty()) {
+      return endpoints;
+    }
+    for (String name : options.endpoints()) {
+      if (endpoints.stream().noneMatch(endpoint -> endpoint.name().equals(name))) {
+        throw new IllegalArgumentException("Unknown endpoint " + name + ", expected one of "
+                + endpoints.stream().map(Endpoint::name).toList());
+      }
+    }
+    return endpoints.stream().filter(endpoint -> options.endpoints().contains(endpoint.name())).toList();
+  }
+
+  private static LoadTestReport.EndpointResult measure(Endpoint endpoint, HttpClient client, LoadTestOptions options)
+          throws InterruptedException, ExecutionException {
+    run(endpoint, client, options.concurrency(), options.warmupSeconds());
+
+    List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .toList();
+    heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+    long gcCount = gcCount();
+    long gcMillis = gcMillis();
+    long start = System.nanoTime();
+    Run run = run(endpoint, client, options.concurrency(), options.durationSeconds());
+    double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+    Histogram latencies = run.latencies();
+    return new LoadTestReport.EndpointResult(
+            endpoint.name(),
+            latencies.getTotalCount(),
+            run.errors(),
+            latencies.getTotalCount() / elapsedSeconds,
+            toMillis(latencies.getValueAtPercentile(50)),
+            toMillis(latencies.getValueAtPercentile(99)),
+            toMillis(latencies.getValueAtPercentile(99.9)),
+            toMillis(latencies.getMaxValue()),
+            gcCount() - gcCount,
+            gcMillis() - gcMillis,
+            heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum(),
+            ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+  }
+
+  /**
+   * Send the requests of the endpoint from the clients until the duration elapsed, each client starting at a
+   * different variant
+   */
+  private static Run run(Endpoint endpoint, HttpClient client, int concurrency, int durationSeconds)
+          throws InterruptedException, ExecutionException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+    List<Future<Run>> clients = new ArrayList<>();
+    try (ExecutorService executor = Executors.newFixedThreadPool(concurrency)) {
+      for (int i = 0; i < concurrency; i++) {
+        int first = i;
+        clients.add(executor.submit(() -> {
+          Histogram latencies = new Histogram(3);
+          long errors = 0;
+          for (int next = first; System.nanoTime() < deadline; next++) {
+            long start = System.nanoTime();
+            try {
+              HttpResponse<Void> response = client.send(
+                      endpoint.requests().get(next % endpoint.requests().size()),
+                      HttpResponse.BodyHandlers.discarding());
+              if (response.statusCode() >= 400) {
+                errors++;
+              }
+            } catch (IOException e) {
+              errors++;
+            }
+            latencies.recordValue(System.nanoTime() - start);
+          }
+          return new Run(latencies, errors);
+        }));
+      }
+    }
+    Run total = new Run(new Histogram(3), 0);
+    for (Future<Run> run : clients) {
+      total = total.merge(run.get());
+    }
+    return total;
+  }
+
+  private static long gcCount() {
+    return ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+            .sum();
+  }
+
+  private static long gcMillis() {
+    return ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+            .sum();
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / 1e6;
+  }
+
+  private static void write(Path output, LoadTestReport report) throws IOException {
+    Path directory = output.toAbsolutePath().getParent();
+    if (directory != null) {
+      Files.createDirectories(directory);
+    }
+    new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+  }
+
+  private record Run(Histogram latencies, long errors) {
+
+    private Run merge(Run other) {
+      latencies.add(other.latencies());
+      return new Run(latencies, errors + other.errors());
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package org.example.loadtest;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of a {@link LoadTest} run, given as {@code --name=value} arguments
+ *
+ * @param rowsPerSymbol   rows of every generated csv
+ * @param concurrency     clients sending requests in a closed loop, each waiting for its response before the next one
+ * @param warmupSeconds   time spent on an endpoint before measuring it
+ * @param durationSeconds time an endpoint is measured for
+ * @param endpoints       names of the endpoints to run, all when empty
+ * @param responseCache   whether the {@code @CachedResponse} endpoints are served from the response cache, off by
+ *                        default so that every request is computed
+ * @param dataDirectory   directory the data set is generated into, reused by later runs
+ * @param output          json report
+ */
+record LoadTestOptions(
+        int rowsPerSymbol,
+        int concurrency,
+        int warmupSeconds,
+        int durationSeconds,
+        List<String> endpoints,
+        boolean responseCache,
+        Path dataDirectory,
+        Path output) {
+
+  static LoadTestOptions parse(String... args) {
+    Map<String, String> values = new HashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("Expected --name=value but got " + arg);
+      }
+      values.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    int rowsPerSymbol = Integer.parseInt(values.getOrDefault("rows", "1000000"));
+    String endpoints = values.getOrDefault("endpoints", "");
+    return new LoadTestOptions(
+            rowsPerSymbol,
+            Integer.parseInt(values.getOrDefault("concurrency", "16")),
+            Integer.parseInt(values.getOrDefault("warmup", "5")),
+            Integer.parseInt(values.getOrDefault("duration", "20")),
+            endpoints.isBlank() ? List.of() : Arrays.asList(endpoints.split(",")),
+            Boolean.parseBoolean(values.getOrDefault("response-cache", "false")),
+            Path.of(values.getOrDefault("data", "target/loadtest-data/" + rowsPerSymbol)),
+            Path.of(values.getOrDefault("output", "target/loadtest/results.json")));
+  }
+}
@@ -0,0 +1,43 @@
+package org.example.loadtest;
+
+import java.util.List;
+
+/**
+ * Json report of a {@link LoadTest} run, comparable between builds run with the same options
+ *
+ * @param responseCache whether the {@code @CachedResponse} endpoints were served from the response cache
+ */
+record LoadTestReport(
+        String startedAt,
+        String javaVersion,
+        int availableProcessors,
+        long maxHeapBytes,
+        int rowsPerSymbol,
+        int concurrency,
+        int warmupSeconds,
+        int durationSeconds,
+        boolean responseCache,
+        List<EndpointResult> endpoints) {
+
+  /**
+   * Measures of an endpoint. The heap and gc figures cover the whole jvm, clients included, over the measured period.
+   *
+   * @param errors        responses with a 4xx/5xx status, or requests that failed
+   * @param heapPeakBytes sum of the peak usage of the heap memory pools
+   * @param heapUsedBytes heap used at the end of the period
+   */
+  record EndpointResult(
+          String name,
+          long requests,
+          long errors,
+          double throughputPerSecond,
+          double p50Millis,
+          double p99Millis,
+          double p999Millis,
+          double maxMillis,
+          long gcCount,
+          long gcMillis,
+          long heapPeakBytes,
+          long heapUsedBytes) {
+  }
+}
@@ -0,0 +1,16 @@
+package org.example.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Endpoints whose serialized response is cached per arguments until the data it was computed from changes, and
+ * tagged with an ETag so that conditional GETs get a 304. The response only depends on the {@link
+ * org.example.model.Symbol} argument if there is one, else on all symbols.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedResponse {
+}
@@ -5,8 +5,17 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Methods that require rate limiting. Every client (API key, else remote address) gets its own bucket per method;
+ * attributes left negative fall back to the {@code rate.limit.*} properties.
+ */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface RateLimited {
-    // Marker annotation for methods that require rate limiting
+
+  int capacity() default -1;
+
+  int refillTokens() default -1;
+
+  int refillSeconds() default -1;
 }
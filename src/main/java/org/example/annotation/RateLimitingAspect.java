@@ -1,24 +1,53 @@
 package org.example.annotation;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
 import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.example.exception.ErrorMessage;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.lang.reflect.Method;
 import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Aspect
 @Component
+@Order(0)
+@RequiredArgsConstructor
 public class RateLimitingAspect {
 
+  public static final String API_KEY_HEADER = "X-API-Key";
+  public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+  private final MeterRegistry meterRegistry;
+
+  @Value("${rate.limit.enabled}")
+  private boolean enabled;
+
   @Value("${rate.limit.capacity}")
   private Integer capacity;
 
@@ -28,25 +57,99 @@ public class RateLimitingAspect {
   @Value("${rate.limit.refill.interval.seconds}")
   private Integer intervalRefill;
 
-  private Bucket bucket;
+  @Value("${rate.limit.clients.maximum}")
+  private Integer maxClients;
+
+  @Value("${rate.limit.clients.expire.minutes}")
+  private Integer clientExpireInterval;
+
+  @Value("${rate.limit.api.keys}")
+  private Set<String> apiKeys;
+
+  private final Map<Method, Limit> limits = new ConcurrentHashMap<>();
+
+  private Cache<ClientKey, Bucket> buckets;
 
   @PostConstruct
   public void init() {
-    Bandwidth limit = Bandwidth.classic(capacity, Refill.greedy(refillTokens, Duration.ofSeconds(intervalRefill)));
-    this.bucket = Bucket.builder().addLimit(limit).build();
+    this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            .expireAfterAccess(clientExpireInterval, TimeUnit.MINUTES)
+            .build();
   }
 
-  @Around("@annotation(RateLimited)")
-  public Object rateLimitAdvice(ProceedingJoinPoint joinPoint) throws Throwable {
-    if (bucket.tryConsume(1)) {
+  @Around("@annotation(rateLimited)")
+  public Object rateLimitAdvice(ProceedingJoinPoint joinPoint, RateLimited rateLimited) throws Throwable {
+    if (!enabled) {
       return joinPoint.proceed();
     }
-    return handleTooManyRequests();
+    Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+    Limit limit = limits.computeIfAbsent(method, key -> Limit.of(rateLimited, capacity, refillTokens, intervalRefill,
+            Counter.builder("crypto.rate.limit.rejections")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("endpoint", method.getName())
+                    .register(meterRegistry)));
+    ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+
+    Bucket bucket = buckets.get(new ClientKey(method, clientOf(attributes)), key -> limit.newBucket());
+    ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+    if (probe.isConsumed()) {
+      HttpServletResponse response = attributes == null ? null : attributes.getResponse();
+      if (response != null) {
+        response.setHeader(REMAINING_HEADER, Long.toString(probe.getRemainingTokens()));
+      }
+      return joinPoint.proceed();
+    }
+    ResponseEntity<ErrorMessage> tooManyRequests = handleTooManyRequests(limit, probe);
+    return CompletableFuture.class.isAssignableFrom(method.getReturnType())
+            ? CompletableFuture.completedFuture(tooManyRequests)
+            : tooManyRequests;
   }
 
-  private ResponseEntity<ErrorMessage> handleTooManyRequests() {
+  /**
+   * Clients are identified by their API key only when it is one of {@code rate.limit.api.keys}, as keys are not
+   * authenticated otherwise and a client could get a new bucket per request by sending a new key each time
+   */
+  private String clientOf(ServletRequestAttributes attributes) {
+    if (attributes == null) {
+      return "";
+    }
+    HttpServletRequest request = attributes.getRequest();
+    String apiKey = request.getHeader(API_KEY_HEADER);
+    return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+  }
+
+  private ResponseEntity<ErrorMessage> handleTooManyRequests(Limit limit, ConsumptionProbe probe) {
+    limit.rejections().increment();
     HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
-    String errorMessage = String.format("Too many requests. Maximum is %d per %d seconds", capacity, intervalRefill);
-    return ResponseEntity.status(status).body(new ErrorMessage(errorMessage));
+    String errorMessage = String.format(
+            "Too many requests. Maximum is %d per %d seconds",
+            limit.capacity(),
+            limit.refillSeconds());
+    long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill() + 999_999_999));
+    return ResponseEntity.status(status)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+            .header(REMAINING_HEADER, "0")
+            .body(new ErrorMessage(errorMessage));
+  }
+
+  private record ClientKey(Method method, String client) {
+  }
+
+  private record Limit(int capacity, int refillTokens, int refillSeconds, Counter rejections) {
+
+    private static Limit of(
+            RateLimited rateLimited, int capacity, int refillTokens, int refillSeconds, Counter rejections) {
+      return new Limit(
+              rateLimited.capacity() < 0 ? capacity : rateLimited.capacity(),
+              rateLimited.refillTokens() < 0 ? refillTokens : rateLimited.refillTokens(),
+              rateLimited.refillSeconds() < 0 ? refillSeconds : rateLimited.refillSeconds(),
+              rejections);
+    }
+
+    private Bucket newBucket() {
+      Bandwidth limit = Bandwidth.classic(capacity, Refill.greedy(refillTokens, Duration.ofSeconds(refillSeconds)));
+      return Bucket.builder().addLimit(limit).build();
+    }
   }
 }
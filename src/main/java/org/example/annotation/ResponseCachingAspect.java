@@ -0,0 +1,149 @@
+package org.example.annotation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.example.model.Symbol;
+import org.example.service.impl.PriceSeriesLoader;
+import org.example.service.impl.SymbolRegistry;
+import org.example.service.impl.store.TickStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Serves {@link CachedResponse} endpoints from a cache of their serialized bodies, bounded by
+ * {@code response.cache.maximum.bytes}. An entry is used as long as the generation of the loaded series it depends on
+ * (see {@link PriceSeriesLoader#generation(Symbol)}), the ticks synced into the {@link TickStore} when enabled and the
+ * available symbols did not change since it was computed. The body is returned with an ETag derived from its bytes,
+ * Spring answering a matching {@code If-None-Match} with a 304 to GET requests only, POST endpoints getting the ETag
+ * but always the body. Runs within the rate limiting, which applies to cached responses too. Endpoints returning a
+ * {@link CompletableFuture} get their body cached once it completes, and a completed future on a hit. Every response
+ * is computed when {@code response.cache.enabled} is off.
+ */
+@Aspect
+@Component
+@Order(1)
+@RequiredArgsConstructor
+public class ResponseCachingAspect {
+
+  private final ObjectMapper objectMapper;
+  private final PriceSeriesLoader priceSeriesLoader;
+  private final SymbolRegistry symbolRegistry;
+  private final ObjectProvider<TickStore> tickStore;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${response.cache.enabled}")
+  private boolean enabled;
+
+  @Value("${response.cache.maximum.bytes}")
+  private long maxBytes;
+
+  private Cache<ResponseKey, CachedBody> responses;
+
+  @PostConstruct
+  public void init() {
+    this.responses = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((ResponseKey key, CachedBody body) -> body.bytes().length)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, responses, "responses");
+  }
+
+  @Around("@annotation(org.example.annotation.CachedResponse)")
+  public Object cachedResponseAdvice(ProceedingJoinPoint joinPoint) throws Throwable {
+    if (!enabled) {
+      return joinPoint.proceed();
+    }
+    Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+    ResponseKey key = new ResponseKey(method, Arrays.asList(joinPoint.getArgs()));
+    Version version = versionOf(joinPoint.getArgs());
+    CachedBody body = responses.getIfPresent(key);
+    if (body != null && body.version().isSameAs(version)) {
+      ResponseEntity<byte[]> cached = toResponse(body);
+      return CompletableFuture.class.isAssignableFrom(method.getReturnType())
+              ? CompletableFuture.completedFuture(cached)
+              : cached;
+    }
+    Object result = joinPoint.proceed();
+    if (result instanceof CompletableFuture<?> future) {
+      return future.thenApply(completed -> cache(key, version, completed));
+    }
+    return cache(key, version, result);
+  }
+
+  private Object cache(ResponseKey key, Version version, Object result) {
+    if (!(result instanceof ResponseEntity<?> response)
+            || !response.getStatusCode().is2xxSuccessful()
+            || response.getBody() == null) {
+      return result;
+    }
+    byte[] bytes;
+    try {
+      bytes = objectMapper.writeValueAsBytes(response.getBody());
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+    CachedBody body = new CachedBody(version, bytes, "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"");
+    responses.put(key, body);
+    return toResponse(body);
+  }
+
+  private static ResponseEntity<byte[]> toResponse(CachedBody body) {
+    return ResponseEntity.ok()
+            .eTag(body.eTag())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body.bytes());
+  }
+
+  /**
+   * Read before computing the response, so that a change happening meanwhile leaves the entry outdated
+   */
+  private Version versionOf(Object[] args) {
+    TickStore store = tickStore.getIfAvailable();
+    long storeGeneration = store == null ? 0 : store.generation();
+    for (Object arg : args) {
+      if (arg instanceof Symbol symbol) {
+        return new Version(priceSeriesLoader.generation(symbol), storeGeneration, null);
+      }
+    }
+    return new Version(priceSeriesLoader.generation(), storeGeneration, symbolRegistry.symbols());
+  }
+
+  private record ResponseKey(Method method, List<Object> args) {
+  }
+
+  private record CachedBody(Version version, byte[] bytes, String eTag) {
+  }
+
+  /**
+   * @param storeGeneration {@link TickStore#generation()}, 0 without a tick store
+   * @param symbols the instance returned by {@link SymbolRegistry#symbols()}, null when depending on a single symbol
+   */
+  private record Version(long generation, long storeGeneration, List<Symbol> symbols) {
+
+    private boolean isSameAs(Version other) {
+      return generation == other.generation && storeGeneration == other.storeGeneration && symbols == other.symbols;
+    }
+  }
+}
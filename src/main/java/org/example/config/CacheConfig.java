@@ -1,38 +1,63 @@
 package org.example.config;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.model.PriceSeries;
+import org.example.model.Symbol;
+import org.example.service.impl.PriceSeriesLoader;
 import org.example.service.impl.util.CryptoServiceUtil;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
-@EnableCaching
 public class CacheConfig {
   @Value("${cache.expire.interval.minutes}")
   private Integer expireInterval;
 
-  @Value("${cache.maximum.entries}")
-  private Integer maxEntries;
+  @Value("${cache.refresh.interval.minutes}")
+  private Integer refreshInterval;
+
+  @Value("${cache.maximum.bytes}")
+  private Long maxBytes;
+
+  @Bean(destroyMethod = "close")
+  public ExecutorService cryptoLoadExecutor() {
+    return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("crypto-loader-", 0).factory());
+  }
 
   @Bean
-  public CacheManager cacheManager() {
-    CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-    cacheManager.setCaffeine(caffeineCacheBuilder());
-    cacheManager.setCacheNames(List.of(CryptoServiceUtil.CACHE_NAME));
-    return cacheManager;
+  public AsyncLoadingCache<Symbol, PriceSeries> cryptoDataCache(
+          PriceSeriesLoader priceSeriesLoader, ExecutorService cryptoLoadExecutor, MeterRegistry meterRegistry) {
+    AsyncLoadingCache<Symbol, PriceSeries> cache = caffeineCacheBuilder()
+            .executor(cryptoLoadExecutor)
+            .removalListener((Symbol symbol, PriceSeries series, RemovalCause cause) -> {
+              if (cause != RemovalCause.SIZE) {
+                priceSeriesLoader.changed(symbol);
+              }
+            })
+            .buildAsync(priceSeriesLoader);
+    return CaffeineCacheMetrics.monitor(meterRegistry, cache, CryptoServiceUtil.CACHE_NAME);
   }
 
-  public Caffeine<Object, Object> caffeineCacheBuilder() {
-    return com.github.benmanes.caffeine.cache.Caffeine.newBuilder()
+  /**
+   * Series are evicted by the bytes of their columns (compressed or not) rather than by count, as their sizes differ a
+   * lot between symbols. Only the cache holds the series, so an eviction frees them, and as their data did not change
+   * it leaves the generation of the loaded data as is.
+   */
+  public Caffeine<Symbol, PriceSeries> caffeineCacheBuilder() {
+    return Caffeine.newBuilder()
+            .refreshAfterWrite(refreshInterval, TimeUnit.MINUTES)
             .expireAfterWrite(expireInterval, TimeUnit.MINUTES)
-            .maximumSize(maxEntries)
+            .maximumWeight(maxBytes)
+            .weigher((Symbol symbol, PriceSeries series) -> (int) Math.min(Integer.MAX_VALUE, series.columnBytes()))
             .recordStats();
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ComputeConfig {
+
+  @Value("${compute.pool.size}")
+  private Integer poolSize;
+
+  @Value("${compute.queue.capacity}")
+  private Integer queueCapacity;
+
+  /**
+   * Bounded pool the CPU heavy endpoints compute on, so that they neither hold request threads nor get more threads
+   * than {@code compute.pool.size}. Work beyond {@code compute.queue.capacity} waiting tasks is rejected.
+   */
+  @Bean(destroyMethod = "close")
+  public ExecutorService cryptoComputeExecutor(MeterRegistry meterRegistry) {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("crypto-compute-", 0).daemon().factory());
+    new ExecutorServiceMetrics(executor, "cryptoCompute", Tags.empty()).bindTo(meterRegistry);
+    return executor;
+  }
+}
@@ -0,0 +1,29 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * The only data source of the application: the auto-configured one is excluded, so that no database nor its health
+ * check is set up unless the tick store is enabled
+ */
+@Configuration
+@ConditionalOnProperty(name = "tickstore.enabled", havingValue = "true")
+public class TickStoreConfig {
+  @Value("${tickstore.url}")
+  private String url;
+
+  @Bean(destroyMethod = "close")
+  public DataSource tickStoreDataSource() {
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl(url);
+    dataSource.setUsername("sa");
+    dataSource.setPoolName("tickstore");
+    return dataSource;
+  }
+}
@@ -0,0 +1,21 @@
+package org.example.config;
+
+import lombok.RequiredArgsConstructor;
+import org.example.model.Symbol;
+import org.example.service.impl.SymbolRegistry;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+  private final SymbolRegistry symbolRegistry;
+
+  @Override
+  public void addFormatters(FormatterRegistry registry) {
+    registry.addConverter(String.class, Symbol.class, name -> symbolRegistry.find(name)
+            .orElseThrow(() -> new IllegalArgumentException("Unknown symbol " + name)));
+  }
+}
@@ -0,0 +1,82 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.example.exception.ErrorMessage;
+import org.example.exception.InvalidRequestException;
+import org.example.model.CorrelationMatrix;
+import org.example.model.IndicatorPoint;
+import org.example.model.Symbol;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public interface AnalyticsApi {
+
+  @Operation(summary = "Get the return, simple/exponential moving averages and volatility (standard deviation of the " +
+          "returns) of cryptos per bucket, over a trailing window of buckets")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Indicators returned, keyed by crypto",
+                  content = {@Content(mediaType = "application/json",
+                          schema = @Schema(implementation = Map.class),
+                          examples = @ExampleObject("{\"BTC\":[{\"start\":\"2022-01-07T00:00:00\"," +
+                                  "\"close\":41727.73,\"periodReturn\":-0.0398,\"sma\":45130.81," +
+                                  "\"ema\":44236.91,\"volatility\":0.0221}]}"))}),
+          @ApiResponse(responseCode = "400", description = "Invalid symbols/from/to/interval/window supplied", content =
+          @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+          @ApiResponse(responseCode = "429", description = "Too Many Requests", content = @Content(mediaType =
+                  "application/json", schema = @Schema(implementation = ErrorMessage.class), examples =
+          @ExampleObject("message: Too many requests/Only 1 request per 20 seconds allowed")))})
+  @GetMapping("/indicators")
+  CompletableFuture<ResponseEntity<Map<Symbol, List<IndicatorPoint>>>> getIndicators(
+          @Parameter(description = "Cryptos to include, all by default",
+                  array = @ArraySchema(schema = @Schema(type = "string", example = "BTC")))
+          @RequestParam(required = false) List<Symbol> symbols,
+          @Parameter(description = "Start of the range, inclusive, all history by default",
+                  example = "2022-01-01T00:00:00Z")
+          @RequestParam(required = false) Instant from,
+          @Parameter(description = "End of the range, exclusive, all history by default",
+                  example = "2022-02-01T00:00:00Z")
+          @RequestParam(required = false) Instant to,
+          @Parameter(description = "Bucket size: 1h, 1d or 1w") @RequestParam(defaultValue = "1d") String interval,
+          @Parameter(description = "Number of buckets of the moving averages and volatility, at most " +
+                  "analytics.window.maximum")
+          @RequestParam(defaultValue = "7") int window) throws InvalidRequestException;
+
+  @Operation(summary = "Get the correlation matrix of the bucket returns of cryptos")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Correlation matrix returned",
+                  content = {@Content(mediaType = "application/json",
+                          schema = @Schema(implementation = CorrelationMatrix.class),
+                          examples = @ExampleObject("{\"symbols\":[\"BTC\",\"ETH\"]," +
+                                  "\"correlations\":[[1.0,0.87],[0.87,1.0]]}"))}),
+          @ApiResponse(responseCode = "400", description = "Invalid symbols/from/to/interval supplied", content =
+          @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+          @ApiResponse(responseCode = "429", description = "Too Many Requests", content = @Content(mediaType =
+                  "application/json", schema = @Schema(implementation = ErrorMessage.class), examples =
+          @ExampleObject("message: Too many requests/Only 1 request per 20 seconds allowed")))})
+  @GetMapping("/correlations")
+  CompletableFuture<ResponseEntity<CorrelationMatrix>> getCorrelations(
+          @Parameter(description = "Cryptos to include, all by default",
+                  array = @ArraySchema(schema = @Schema(type = "string", example = "BTC")))
+          @RequestParam(required = false) List<Symbol> symbols,
+          @Parameter(description = "Start of the range, inclusive, all history by default",
+                  example = "2022-01-01T00:00:00Z")
+          @RequestParam(required = false) Instant from,
+          @Parameter(description = "End of the range, exclusive, all history by default",
+                  example = "2022-02-01T00:00:00Z")
+          @RequestParam(required = false) Instant to,
+          @Parameter(description = "Bucket size: 1h, 1d or 1w") @RequestParam(defaultValue = "1d") String interval)
+          throws InvalidRequestException;
+}
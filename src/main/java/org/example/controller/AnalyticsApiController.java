@@ -0,0 +1,52 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.annotation.CachedResponse;
+import org.example.annotation.RateLimited;
+import org.example.exception.InvalidRequestException;
+import org.example.model.CorrelationMatrix;
+import org.example.model.IndicatorPoint;
+import org.example.model.Symbol;
+import org.example.service.spec.AnalyticsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/crypto/analytics")
+public class AnalyticsApiController implements AnalyticsApi {
+
+  private final AnalyticsService analyticsService;
+  private final ExecutorService cryptoComputeExecutor;
+
+  @RateLimited
+  @CachedResponse
+  public CompletableFuture<ResponseEntity<Map<Symbol, List<IndicatorPoint>>>> getIndicators(
+          @RequestParam(required = false) List<Symbol> symbols,
+          @RequestParam(required = false) Instant from,
+          @RequestParam(required = false) Instant to,
+          @RequestParam(defaultValue = "1d") String interval,
+          @RequestParam(defaultValue = "7") int window) throws InvalidRequestException {
+    return Computations.supplyAsync(
+            analyticsService.prepareIndicators(symbols, from, to, interval, window), cryptoComputeExecutor);
+  }
+
+  @RateLimited
+  @CachedResponse
+  public CompletableFuture<ResponseEntity<CorrelationMatrix>> getCorrelations(
+          @RequestParam(required = false) List<Symbol> symbols,
+          @RequestParam(required = false) Instant from,
+          @RequestParam(required = false) Instant to,
+          @RequestParam(defaultValue = "1d") String interval) throws InvalidRequestException {
+    return Computations.supplyAsync(
+            analyticsService.prepareCorrelations(symbols, from, to, interval), cryptoComputeExecutor);
+  }
+}
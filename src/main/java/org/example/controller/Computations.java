@@ -0,0 +1,23 @@
+package org.example.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Runs endpoint computations on the compute executor. The series they work on are loaded by the request thread
+ * beforehand, so that the compute threads never wait for a csv to be read.
+ */
+final class Computations {
+
+  private Computations() {
+  }
+
+  static <T> CompletableFuture<ResponseEntity<T>> supplyAsync(Supplier<T> computation, Executor executor) {
+    return CompletableFuture.supplyAsync(computation, executor)
+            .thenApply(body -> new ResponseEntity<>(body, HttpStatus.OK));
+  }
+}
@@ -2,6 +2,7 @@ package org.example.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -10,17 +11,28 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.apache.commons.lang3.tuple.Pair;
 import org.example.exception.ErrorMessage;
 import org.example.exception.InvalidDateException;
+import org.example.exception.InvalidRequestException;
+import org.example.model.CacheStatistics;
+import org.example.model.Candle;
 import org.example.model.Crypto;
+import org.example.model.CryptoStatistics;
+import org.example.model.NormalizedRangeRank;
 import org.example.model.Symbol;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface CryptoApi {
 
@@ -33,11 +45,35 @@ public interface CryptoApi {
                           examples = @ExampleObject("[{ \"timestamp\": \"2022-01-01T10:00:00\",\"symbol\":\"BTC\"," +
                                   "\"price\":2615.75}," +
                                   "{ \"timestamp\": \"2023-08-02T10:00:00\",\"symbol\":\"ETH\",\"price\":4522.26}]"))}),
+          @ApiResponse(responseCode = "400", description = "Invalid offset/limit supplied", content =
+          @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
           @ApiResponse(responseCode = "429", description = "Too Many Requests", content = @Content(mediaType =
                   "application/json", schema = @Schema(implementation = ErrorMessage.class), examples =
           @ExampleObject("message: Too many requests/Only 1 request per 20 seconds allowed")))})
   @GetMapping("/sorted-crypto/normalized-range")
-  ResponseEntity<List<Crypto>> getSortedCryptosByNormalizedRange();
+  CompletableFuture<ResponseEntity<List<Crypto>>> getSortedCryptosByNormalizedRange(
+          @Parameter(description = "Number of cryptos to skip") @RequestParam(defaultValue = "0") long offset,
+          @Parameter(description = "Maximum number of cryptos to return, all by default")
+          @RequestParam(required = false) Long limit) throws InvalidRequestException;
+
+  @Operation(summary = "Stream the descending sorted list of all the cryptos, comparing the normalized range, as " +
+          "newline delimited json")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Cryptos streamed, one json object per line",
+                  content = {@Content(mediaType = "application/x-ndjson",
+                          examples = @ExampleObject("{ \"timestamp\": \"2022-01-01T10:00:00\",\"symbol\":\"BTC\"," +
+                                  "\"price\":2615.75}\n" +
+                                  "{ \"timestamp\": \"2023-08-02T10:00:00\",\"symbol\":\"ETH\",\"price\":4522.26}"))}),
+          @ApiResponse(responseCode = "400", description = "Invalid offset/limit supplied", content =
+          @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+          @ApiResponse(responseCode = "429", description = "Too Many Requests", content = @Content(mediaType =
+                  "application/json", schema = @Schema(implementation = ErrorMessage.class), examples =
+          @ExampleObject("message: Too many requests/Only 1 request per 20 seconds allowed")))})
+  @GetMapping(value = "/sorted-crypto/normalized-range/stream", produces = "application/x-ndjson")
+  ResponseEntity<StreamingResponseBody> streamSortedCryptosByNormalizedRange(
+          @Parameter(description = "Number of cryptos to skip") @RequestParam(defaultValue = "0") long offset,
+          @Parameter(description = "Maximum number of cryptos to return, all by default")
+          @RequestParam(required = false) Long limit) throws InvalidRequestException;
 
   @Operation(summary = "Get a list of statistics(oldest/newest/min/max) for a specific crypto")
   @ApiResponses(value = {
@@ -54,7 +90,8 @@ public interface CryptoApi {
           @ExampleObject("message: Too many requests/Only 1 request per 20 seconds allowed")))})
   @GetMapping("/statistics/{crypto}")
   ResponseEntity<List<Pair<String, Crypto>>> getStatisticsForCrypto(
-          @Parameter(description = "Crypto to filter by") @PathVariable Symbol crypto);
+          @Parameter(description = "Crypto to filter by", schema = @Schema(type = "string", example = "BTC"))
+          @PathVariable Symbol crypto);
 
   @Operation(summary = "Get a list of statistics(oldest/newest/min/max) for each crypto for the a specific month")
   @ApiResponses(value = {
@@ -74,6 +111,31 @@ public interface CryptoApi {
           @Parameter(description = "Year") @PathVariable int year,
           @Parameter(description = "Month") @PathVariable int month) throws InvalidDateException;
 
+  @Operation(summary = "Get the statistics(oldest/newest/min/max) of several cryptos, all time and for several " +
+          "months, in one call")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Statistics returned, keyed by crypto then all/month",
+                  content = {@Content(mediaType = "application/json",
+                          schema = @Schema(implementation = Map.class),
+                          examples = @ExampleObject("{\"BTC\":{\"2022-01\":{" +
+                                  "\"oldest\":{\"timestamp\":\"2022-01-01T04:00:00\",\"symbol\":\"BTC\"," +
+                                  "\"price\":46813.21}," +
+                                  "\"newest\":{\"timestamp\":\"2022-01-31T20:00:00\",\"symbol\":\"BTC\"," +
+                                  "\"price\":38415.79}}}}"))}),
+          @ApiResponse(responseCode = "400", description = "Invalid symbols/months supplied", content =
+          @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+          @ApiResponse(responseCode = "429", description = "Too Many Requests", content = @Content(mediaType =
+                  "application/json", schema = @Schema(implementation = ErrorMessage.class), examples =
+          @ExampleObject("message: Too many requests/Only 1 request per 20 seconds allowed")))})
+  @GetMapping("/statistics/batch")
+  ResponseEntity<Map<Symbol, Map<String, CryptoStatistics>>> getBatchStatistics(
+          @Parameter(description = "Cryptos to include, all by default",
+                  array = @ArraySchema(schema = @Schema(type = "string", example = "BTC")))
+          @RequestParam(required = false) List<Symbol> symbols,
+          @Parameter(description = "Months to include besides the all time statistics",
+                  array = @ArraySchema(schema = @Schema(type = "string", example = "2022-01")))
+          @RequestParam(required = false) List<YearMonth> months);
+
   @Operation(summary = "Get highest normalized range for a specific day")
   @ApiResponses(value = {
           @ApiResponse(responseCode = "200", description = "highest normalized crypto returned",
@@ -90,4 +152,74 @@ public interface CryptoApi {
   ResponseEntity<Crypto> getHighestNormalizedRange(
           @Parameter(description = "LocalDate used to filter") @RequestBody LocalDate date);
 
-}
\ No newline at end of file
+  @Operation(summary = "Get highest normalized range for a specific day, answering a matching If-None-Match with a 304")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "highest normalized crypto returned",
+                  content = {@Content(mediaType = "application/json",
+                          schema = @Schema(implementation = Crypto.class),
+                          examples = @ExampleObject("{ \"timestamp\": \"2022-01-01T10:00:00\",\"symbol\":\"BTC\"," +
+                                  "\"price\":2615.75}"))}),
+          @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match"),
+          @ApiResponse(responseCode = "400", description = "Invalid date supplied", content = @Content(mediaType =
+                  "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+          @ApiResponse(responseCode = "429", description = "Too Many Requests", content = @Content(mediaType =
+                  "application/json", schema = @Schema(implementation = ErrorMessage.class), examples =
+          @ExampleObject("message: Too many requests/Only 1 request per 20 seconds allowed")))})
+  @GetMapping("/highest-normalized-range/{date}")
+  ResponseEntity<Crypto> getHighestNormalizedRangeOn(
+          @Parameter(description = "Day used to filter", schema = @Schema(type = "string", example = "2022-01-01"))
+          @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date);
+
+  @Operation(summary = "Get the symbols ranked by normalized range (i.e. (max-min)/min) within a trailing time window")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Ranking returned",
+                  content = {@Content(mediaType = "application/json",
+                          schema = @Schema(implementation = List.class),
+                          examples = @ExampleObject("[{ \"symbol\":\"ETH\",\"normalizedRange\":0.6383," +
+                                  "\"from\":\"2022-01-01T08:00:00\",\"to\":\"2022-01-31T20:00:00\"}]"))}),
+          @ApiResponse(responseCode = "400", description = "Invalid window/top supplied", content =
+          @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+          @ApiResponse(responseCode = "429", description = "Too Many Requests", content = @Content(mediaType =
+                  "application/json", schema = @Schema(implementation = ErrorMessage.class), examples =
+          @ExampleObject("message: Too many requests/Only 1 request per 20 seconds allowed")))})
+  @GetMapping("/ranking/normalized-range")
+  ResponseEntity<List<NormalizedRangeRank>> getNormalizedRangeRanking(
+          @Parameter(description = "Trailing window ending at the newest price: 24h, 7d, 30d or all")
+          @RequestParam(defaultValue = "all") String window,
+          @Parameter(description = "Maximum number of symbols to return, all by default")
+          @RequestParam(required = false) Integer top) throws InvalidRequestException;
+
+  @Operation(summary = "Get OHLC candles (first/max/min/last price and count per bucket) of cryptos over a time range")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Candles returned, ordered by symbol then bucket",
+                  content = {@Content(mediaType = "application/json",
+                          schema = @Schema(implementation = List.class),
+                          examples = @ExampleObject("[{ \"symbol\":\"BTC\",\"start\":\"2022-01-01T00:00:00\"," +
+                                  "\"open\":46813.21,\"high\":47143.98,\"low\":46813.21,\"close\":47143.98," +
+                                  "\"count\":2}]"))}),
+          @ApiResponse(responseCode = "400", description = "Invalid symbols/from/to/interval supplied", content =
+          @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+          @ApiResponse(responseCode = "429", description = "Too Many Requests", content = @Content(mediaType =
+                  "application/json", schema = @Schema(implementation = ErrorMessage.class), examples =
+          @ExampleObject("message: Too many requests/Only 1 request per 20 seconds allowed")))})
+  @GetMapping("/candles")
+  CompletableFuture<ResponseEntity<List<Candle>>> getCandles(
+          @Parameter(description = "Cryptos to include, all by default",
+                  array = @ArraySchema(schema = @Schema(type = "string", example = "BTC")))
+          @RequestParam(required = false) List<Symbol> symbols,
+          @Parameter(description = "Start of the range, inclusive", example = "2022-01-01T00:00:00Z")
+          @RequestParam Instant from,
+          @Parameter(description = "End of the range, exclusive", example = "2022-02-01T00:00:00Z")
+          @RequestParam Instant to,
+          @Parameter(description = "Bucket size: 1h, 1d or 1w") @RequestParam(defaultValue = "1d") String interval)
+          throws InvalidRequestException;
+
+  @Operation(summary = "Get hit/miss/load statistics of the crypto data cache")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Statistics returned",
+                  content = {@Content(mediaType = "application/json",
+                          schema = @Schema(implementation = CacheStatistics.class))})})
+  @GetMapping("/cache/statistics")
+  ResponseEntity<CacheStatistics> getCacheStatistics();
+
+}
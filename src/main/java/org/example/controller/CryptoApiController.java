@@ -1,22 +1,41 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.tuple.Pair;
+import org.example.annotation.CachedResponse;
 import org.example.annotation.RateLimited;
 import org.example.exception.InvalidDateException;
+import org.example.exception.InvalidRequestException;
+import org.example.model.CacheStatistics;
+import org.example.model.Candle;
 import org.example.model.Crypto;
+import org.example.model.CryptoStatistics;
+import org.example.model.NormalizedRangeRank;
 import org.example.model.Symbol;
 import org.example.service.spec.CryptoService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequiredArgsConstructor
@@ -24,25 +43,89 @@ import java.util.Map;
 public class CryptoApiController implements CryptoApi {
 
   private final CryptoService cryptoService;
+  private final ObjectMapper objectMapper;
+  private final ExecutorService cryptoComputeExecutor;
 
   @RateLimited
-  public ResponseEntity<List<Crypto>> getSortedCryptosByNormalizedRange() {
-    return new ResponseEntity<>(cryptoService.calculateNormalizedRangesAndSort(), HttpStatus.OK);
+  public CompletableFuture<ResponseEntity<List<Crypto>>> getSortedCryptosByNormalizedRange(
+          @RequestParam(defaultValue = "0") long offset,
+          @RequestParam(required = false) Long limit) throws InvalidRequestException {
+    Stream<Crypto> cryptos = cryptoService.streamNormalizedRangesAndSort(offset, limitOrAll(limit));
+    return Computations.supplyAsync(() -> cryptos.collect(Collectors.toList()), cryptoComputeExecutor);
   }
 
   @RateLimited
+  public ResponseEntity<StreamingResponseBody> streamSortedCryptosByNormalizedRange(
+          @RequestParam(defaultValue = "0") long offset,
+          @RequestParam(required = false) Long limit) throws InvalidRequestException {
+    Stream<Crypto> cryptos = cryptoService.streamNormalizedRangesAndSort(offset, limitOrAll(limit));
+    ObjectWriter writer = objectMapper.writerFor(Crypto.class);
+    StreamingResponseBody body = outputStream -> {
+      try (cryptos) {
+        for (Iterator<Crypto> iterator = cryptos.iterator(); iterator.hasNext(); ) {
+          outputStream.write(writer.writeValueAsBytes(iterator.next()));
+          outputStream.write('\n');
+        }
+      }
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
+  @RateLimited
+  @CachedResponse
   public ResponseEntity<Map<String, List<Crypto>>> getStatisticsForMonthAndYear(
           @PathVariable int year, @PathVariable int month) throws InvalidDateException {
     return new ResponseEntity<>(cryptoService.getStatisticsByMonthAndYear(year, month), HttpStatus.OK);
   }
 
   @RateLimited
+  @CachedResponse
   public ResponseEntity<List<Pair<String, Crypto>>> getStatisticsForCrypto(@PathVariable Symbol crypto) {
     return new ResponseEntity<>(cryptoService.getStatisticsForCertainCrypto(crypto), HttpStatus.OK);
   }
 
   @RateLimited
+  @CachedResponse
+  public ResponseEntity<Map<Symbol, Map<String, CryptoStatistics>>> getBatchStatistics(
+          @RequestParam(required = false) List<Symbol> symbols,
+          @RequestParam(required = false) List<YearMonth> months) {
+    return new ResponseEntity<>(cryptoService.getStatistics(symbols, months), HttpStatus.OK);
+  }
+
+  @RateLimited
+  @CachedResponse
   public ResponseEntity<Crypto> getHighestNormalizedRange(@RequestBody LocalDate date) {
     return new ResponseEntity<>(cryptoService.getCryptoWithHighestNormalizedRange(date), HttpStatus.OK);
   }
+
+  @RateLimited
+  @CachedResponse
+  public ResponseEntity<Crypto> getHighestNormalizedRangeOn(
+          @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+    return new ResponseEntity<>(cryptoService.getCryptoWithHighestNormalizedRange(date), HttpStatus.OK);
+  }
+
+  @RateLimited
+  public ResponseEntity<List<NormalizedRangeRank>> getNormalizedRangeRanking(
+          @RequestParam(defaultValue = "all") String window,
+          @RequestParam(required = false) Integer top) throws InvalidRequestException {
+    return new ResponseEntity<>(cryptoService.rankByNormalizedRange(window, top), HttpStatus.OK);
+  }
+
+  @RateLimited
+  public CompletableFuture<ResponseEntity<List<Candle>>> getCandles(
+          @RequestParam(required = false) List<Symbol> symbols,
+          @RequestParam Instant from,
+          @RequestParam Instant to,
+          @RequestParam(defaultValue = "1d") String interval) throws InvalidRequestException {
+    return Computations.supplyAsync(cryptoService.prepareCandles(symbols, from, to, interval), cryptoComputeExecutor);
+  }
+
+  public ResponseEntity<CacheStatistics> getCacheStatistics() {
+    return new ResponseEntity<>(cryptoService.getCacheStatistics(), HttpStatus.OK);
+  }
+
+  private static long limitOrAll(Long limit) {
+    return limit == null ? Long.MAX_VALUE : limit;
+  }
 }
@@ -1,7 +1,9 @@
 package org.example.controller;
 
+import org.example.exception.CryptoDataLoadException;
 import org.example.exception.ErrorMessage;
 import org.example.exception.InvalidDateException;
+import org.example.exception.InvalidRequestException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,6 +15,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import java.time.DateTimeException;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.UnsupportedTemporalTypeException;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
 public class CryptoControllerAdvice extends ResponseEntityExceptionHandler {
@@ -39,4 +42,28 @@ public class CryptoControllerAdvice extends ResponseEntityExceptionHandler {
     return handleExceptionInternal(ex, new ErrorMessage(errorMessage), new HttpHeaders(), status, request);
   }
 
+  @ExceptionHandler(InvalidRequestException.class)
+  public ResponseEntity<Object> handleInvalidRequestException(InvalidRequestException ex, WebRequest request) {
+    return handleExceptionInternal(
+            ex, new ErrorMessage(ex.getMessage()), new HttpHeaders(), HttpStatus.BAD_REQUEST, request);
+  }
+
+  @ExceptionHandler(CryptoDataLoadException.class)
+  public ResponseEntity<Object> handleDataLoadException(CryptoDataLoadException ex, WebRequest request) {
+    logger.error(ex.getMessage(), ex);
+
+    return handleExceptionInternal(
+            ex, new ErrorMessage(ex.getMessage()), new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR, request);
+  }
+
+  @ExceptionHandler(RejectedExecutionException.class)
+  public ResponseEntity<Object> handleRejectedExecutionException(RejectedExecutionException ex, WebRequest request) {
+    logger.warn("Computation rejected: " + ex.getMessage());
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.RETRY_AFTER, "1");
+    return handleExceptionInternal(ex, new ErrorMessage("Too many computations in progress, please retry later"),
+            headers, HttpStatus.SERVICE_UNAVAILABLE, request);
+  }
+
 }
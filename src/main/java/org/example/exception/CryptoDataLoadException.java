@@ -0,0 +1,19 @@
+package org.example.exception;
+
+import org.example.model.Symbol;
+
+import java.util.List;
+
+public class CryptoDataLoadException extends RuntimeException {
+
+  private final List<Symbol> symbols;
+
+  public CryptoDataLoadException(List<Symbol> symbols, Throwable cause) {
+    super("Could not load data for " + symbols, cause);
+    this.symbols = List.copyOf(symbols);
+  }
+
+  public List<Symbol> getSymbols() {
+    return symbols;
+  }
+}
@@ -0,0 +1,7 @@
+package org.example.exception;
+
+public class InvalidRequestException extends Exception {
+  public InvalidRequestException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,26 @@
+package org.example.model;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+public record CacheStatistics(
+        long size,
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long loadSuccessCount,
+        long loadFailureCount,
+        double averageLoadPenaltyMillis,
+        long evictionCount) {
+
+  public static CacheStatistics of(long size, CacheStats stats) {
+    return new CacheStatistics(
+            size,
+            stats.hitCount(),
+            stats.missCount(),
+            stats.hitRate(),
+            stats.loadSuccessCount(),
+            stats.loadFailureCount(),
+            stats.averageLoadPenalty() / 1_000_000d,
+            stats.evictionCount());
+  }
+}
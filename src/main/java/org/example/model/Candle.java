@@ -0,0 +1,11 @@
+package org.example.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * First (open), max (high), min (low) and last (close) prices and number of entries of a {@link Symbol} within the
+ * {@link CandleInterval} bucket starting at {@code start}
+ */
+public record Candle(Symbol symbol, LocalDateTime start, double open, double high, double low, double close,
+                     int count) {
+}
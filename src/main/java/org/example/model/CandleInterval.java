@@ -0,0 +1,62 @@
+package org.example.model;
+
+import java.time.DayOfWeek;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Resolutions of the {@link Candle}s, buckets being aligned on the hour, the day or the week (starting on Monday) in
+ * the system time zone
+ */
+public enum CandleInterval {
+  HOUR("1h"),
+  DAY("1d"),
+  WEEK("1w");
+
+  private final String label;
+
+  CandleInterval(String label) {
+    this.label = label;
+  }
+
+  public String label() {
+    return label;
+  }
+
+  /**
+   * @return start of the bucket holding the given date time
+   */
+  public ZonedDateTime bucketStart(ZonedDateTime dateTime) {
+    return switch (this) {
+      case HOUR -> dateTime.truncatedTo(ChronoUnit.HOURS);
+      case DAY -> dateTime.toLocalDate().atStartOfDay(dateTime.getZone());
+      case WEEK -> dateTime.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+              .atStartOfDay(dateTime.getZone());
+    };
+  }
+
+  /**
+   * @return start of the bucket following the one starting at {@code bucketStart}
+   */
+  public ZonedDateTime nextBucketStart(ZonedDateTime bucketStart) {
+    return switch (this) {
+      case HOUR -> bucketStart.plusHours(1);
+      case DAY -> bucketStart.toLocalDate().plusDays(1).atStartOfDay(bucketStart.getZone());
+      case WEEK -> bucketStart.toLocalDate().plusWeeks(1).atStartOfDay(bucketStart.getZone());
+    };
+  }
+
+  /**
+   * @return whether buckets are made of whole days, so that they can be rolled up from the daily statistics
+   */
+  public boolean spansDays() {
+    return this != HOUR;
+  }
+
+  public static Optional<CandleInterval> fromLabel(String label) {
+    return Arrays.stream(values()).filter(interval -> interval.label.equalsIgnoreCase(label)).findFirst();
+  }
+}
@@ -0,0 +1,11 @@
+package org.example.model;
+
+import java.util.List;
+
+/**
+ * Pearson correlations of the bucket returns of every pair of symbols, {@code correlations[i][j]} being the one of
+ * {@code symbols[i]} and {@code symbols[j]}, null when they have less than two returns over common buckets or one of
+ * them does not move
+ */
+public record CorrelationMatrix(List<Symbol> symbols, Double[][] correlations) {
+}
@@ -0,0 +1,7 @@
+package org.example.model;
+
+/**
+ * Oldest/newest/min/max entries of a {@link Symbol} over some period
+ */
+public record CryptoStatistics(Crypto oldest, Crypto newest, Crypto min, Crypto max) {
+}
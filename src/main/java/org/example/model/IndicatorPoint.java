@@ -0,0 +1,12 @@
+package org.example.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Indicators of a {@link Symbol} at the close of the {@link CandleInterval} bucket starting at {@code start}: return
+ * since the previous bucket, simple and exponential moving averages of the closes and standard deviation of the
+ * returns (volatility) over the last buckets. Values needing more buckets than available so far are null.
+ */
+public record IndicatorPoint(LocalDateTime start, double close, Double periodReturn, Double sma, Double ema,
+                             Double volatility) {
+}
@@ -0,0 +1,10 @@
+package org.example.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Normalized range ((max-min)/min) of a {@link Symbol} within a {@link RankingWindow}, which covers the entries from
+ * {@code from} to {@code to}
+ */
+public record NormalizedRangeRank(Symbol symbol, double normalizedRange, LocalDateTime from, LocalDateTime to) {
+}
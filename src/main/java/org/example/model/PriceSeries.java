@@ -0,0 +1,325 @@
+package org.example.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar, time sorted price history of a single {@link Symbol}: epoch millis and prices are kept in two parallel
+ * primitive arrays instead of a list of {@link Crypto} objects. The all time, per {@link RankingWindow}, per month
+ * and per day {@link SeriesStatistics} are computed once, when the series is built. Appending newer entries creates a
+ * new series sharing the columns of this one and recomputes only the statistics the new entries fall in. The columns
+ * can be {@link #compressed()} into {@link TickBlocks}, entries being then decoded on access.
+ */
+public final class PriceSeries {
+
+  private final Symbol symbol;
+  private final long[] timestamps;
+  private final double[] prices;
+  private final TickBlocks blocks;
+  private final int size;
+  private final AtomicInteger columnsUsed;
+  private final Object origin;
+  private final SeriesStatistics statistics;
+  private final SeriesStatistics[] windowStatistics;
+  private final NavigableMap<YearMonth, SeriesStatistics> monthlyStatistics;
+  private final NavigableMap<LocalDate, SeriesStatistics> dailyStatistics;
+
+  private PriceSeries(Symbol symbol, long[] timestamps, double[] prices, TickBlocks blocks, int size,
+                      AtomicInteger columnsUsed, Object origin, PriceSeries previous) {
+    this.symbol = symbol;
+    this.timestamps = timestamps;
+    this.prices = prices;
+    this.blocks = blocks;
+    this.size = size;
+    this.columnsUsed = columnsUsed;
+    this.origin = origin;
+    int from = previous == null ? 0 : previous.size;
+    SeriesStatistics appended = from == size ? null : SeriesStatistics.of(this, from, size);
+    this.statistics = previous == null || previous.statistics == null
+            ? appended
+            : SeriesStatistics.merge(this, previous.statistics, appended);
+    this.windowStatistics = indexByWindow();
+    ZoneId zone = ZoneId.systemDefault();
+    this.monthlyStatistics = index(previous == null ? Collections.emptyNavigableMap() : previous.monthlyStatistics,
+            from, zone, YearMonth::from, month -> month.plusMonths(1).atDay(1).atStartOfDay(zone));
+    this.dailyStatistics = index(previous == null ? Collections.emptyNavigableMap() : previous.dailyStatistics,
+            from, zone, ZonedDateTime::toLocalDate, day -> day.plusDays(1).atStartOfDay(zone));
+  }
+
+  /**
+   * Same entries and statistics as the given series, with the columns encoded in the given blocks
+   */
+  private PriceSeries(PriceSeries series, TickBlocks blocks) {
+    this.symbol = series.symbol;
+    this.timestamps = null;
+    this.prices = null;
+    this.blocks = blocks;
+    this.size = series.size;
+    this.columnsUsed = null;
+    this.origin = series.origin;
+    this.statistics = series.statistics;
+    this.windowStatistics = series.windowStatistics;
+    this.monthlyStatistics = series.monthlyStatistics;
+    this.dailyStatistics = series.dailyStatistics;
+  }
+
+  /**
+   * Build a series from the first {@code size} entries of the given columns, sorting them by timestamp when needed.
+   * Entries sharing a timestamp keep their original order. Columns holding exactly {@code size} sorted entries are
+   * used as they are and must not be modified afterwards.
+   */
+  public static PriceSeries of(Symbol symbol, long[] timestamps, double[] prices, int size) {
+    long[] sortedTimestamps = size == timestamps.length ? timestamps : Arrays.copyOf(timestamps, size);
+    double[] sortedPrices = size == prices.length ? prices : Arrays.copyOf(prices, size);
+    if (!isSorted(sortedTimestamps, size)) {
+      int[] order = IntStream.range(0, size).boxed()
+              .sorted(Comparator.comparingLong(i -> timestamps[i]))
+              .mapToInt(Integer::intValue)
+              .toArray();
+      sortedTimestamps = new long[size];
+      sortedPrices = new double[size];
+      for (int i = 0; i < size; i++) {
+        sortedTimestamps[i] = timestamps[order[i]];
+        sortedPrices[i] = prices[order[i]];
+      }
+    }
+    return new PriceSeries(
+            symbol, sortedTimestamps, sortedPrices, null, size, new AtomicInteger(size), new Object(), null);
+  }
+
+  /**
+   * Series holding the entries of this one followed by the first {@code count} entries of the given columns. When
+   * these are sorted and not older than the newest entry, they are written after the existing ones in the shared
+   * columns (growing a copy when full or already extended by another append) and only the statistics of the months,
+   * days and windows they fall in are recomputed. Otherwise the whole series is rebuilt. This series is left as is,
+   * and the new one is compressed if this one is.
+   */
+  public PriceSeries append(long[] newTimestamps, double[] newPrices, int count) {
+    if (count == 0) {
+      return this;
+    }
+    if (!isSorted(newTimestamps, count) || size > 0 && newTimestamps[0] < timestamp(size - 1)) {
+      long[] allTimestamps;
+      double[] allPrices;
+      if (blocks == null) {
+        allTimestamps = Arrays.copyOf(timestamps, size + count);
+        allPrices = Arrays.copyOf(prices, size + count);
+      } else {
+        allTimestamps = new long[size + count];
+        allPrices = new double[size + count];
+        blocks.copyTo(allTimestamps, allPrices);
+      }
+      System.arraycopy(newTimestamps, 0, allTimestamps, size, count);
+      System.arraycopy(newPrices, 0, allPrices, size, count);
+      PriceSeries rebuilt = of(symbol, allTimestamps, allPrices, size + count);
+      return blocks == null ? rebuilt : rebuilt.compressed();
+    }
+    if (blocks != null) {
+      return new PriceSeries(
+              symbol, null, null, blocks.append(newTimestamps, newPrices, count), size + count, null, origin, this);
+    }
+    long[] extendedTimestamps = timestamps;
+    double[] extendedPrices = prices;
+    AtomicInteger extendedColumnsUsed = columnsUsed;
+    if (size + count > timestamps.length || !columnsUsed.compareAndSet(size, size + count)) {
+      int capacity = Math.max(size + count, size + (size >> 1));
+      extendedTimestamps = Arrays.copyOf(timestamps, capacity);
+      extendedPrices = Arrays.copyOf(prices, capacity);
+      extendedColumnsUsed = new AtomicInteger(size + count);
+    }
+    System.arraycopy(newTimestamps, 0, extendedTimestamps, size, count);
+    System.arraycopy(newPrices, 0, extendedPrices, size, count);
+    return new PriceSeries(
+            symbol, extendedTimestamps, extendedPrices, null, size + count, extendedColumnsUsed, origin, this);
+  }
+
+  /**
+   * @return series with the same entries and statistics whose columns are encoded in {@link TickBlocks}, this series
+   * if it already is
+   */
+  public PriceSeries compressed() {
+    return blocks != null ? this : new PriceSeries(this, TickBlocks.encode(timestamps, prices, size));
+  }
+
+  /**
+   * @return number of bytes held by the columns, encoded or not, which may be shared with other series of the symbol
+   */
+  public long columnBytes() {
+    return blocks != null ? blocks.encodedBytes() : (long) timestamps.length * (Long.BYTES + Double.BYTES);
+  }
+
+  /**
+   * @return whether this series was built by appending entries to the given one (or is the given one), in which case
+   * both share their first {@code other.size()} entries
+   */
+  public boolean extendsFrom(PriceSeries other) {
+    return origin == other.origin && size >= other.size;
+  }
+
+  public Symbol symbol() {
+    return symbol;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public long timestamp(int index) {
+    return blocks == null ? timestamps[index] : blocks.timestamp(index);
+  }
+
+  public double price(int index) {
+    return blocks == null ? prices[index] : blocks.price(index);
+  }
+
+  /**
+   * @return all time statistics, empty if the series has no entries
+   */
+  public Optional<SeriesStatistics> statistics() {
+    return Optional.ofNullable(statistics);
+  }
+
+  /**
+   * @return statistics of the entries within the given window, empty if the series has no entries
+   */
+  public Optional<SeriesStatistics> statistics(RankingWindow window) {
+    return Optional.ofNullable(windowStatistics[window.ordinal()]);
+  }
+
+  /**
+   * @return statistics of the entries within the given month (system time zone), empty if there are none
+   */
+  public Optional<SeriesStatistics> statistics(YearMonth month) {
+    return Optional.ofNullable(monthlyStatistics.get(month));
+  }
+
+  /**
+   * @return statistics of the entries within the given day (system time zone), empty if there are none
+   */
+  public Optional<SeriesStatistics> statistics(LocalDate day) {
+    return Optional.ofNullable(dailyStatistics.get(day));
+  }
+
+  /**
+   * @return statistics of every month having at least one entry, by month
+   */
+  public NavigableMap<YearMonth, SeriesStatistics> monthlyStatistics() {
+    return Collections.unmodifiableNavigableMap(monthlyStatistics);
+  }
+
+  /**
+   * @return statistics of every day having at least one entry, by day
+   */
+  public NavigableMap<LocalDate, SeriesStatistics> dailyStatistics() {
+    return Collections.unmodifiableNavigableMap(dailyStatistics);
+  }
+
+  /**
+   * @return index of the first entry with a timestamp not before {@code epochMilli}, {@link #size()} if there is none
+   */
+  public int lowerBound(long epochMilli) {
+    if (blocks != null) {
+      return blocks.lowerBound(epochMilli);
+    }
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (timestamps[mid] < epochMilli) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Statistics per bucket of the given interval (system time zone) of the entries within {@code [from, to)} epoch
+   * millis, in one pass over the range located by binary search. Buckets of whole days roll the precomputed daily
+   * statistics up, only days cut by the range bounds being scanned.
+   *
+   * @return statistics of the buckets having entries, oldest first
+   */
+  public List<SeriesStatistics> statistics(long from, long to, CandleInterval interval) {
+    List<SeriesStatistics> buckets = new ArrayList<>();
+    ZoneId zone = ZoneId.systemDefault();
+    int index = lowerBound(from);
+    int end = lowerBound(to);
+    while (index < end) {
+      ZonedDateTime bucketStart = interval.bucketStart(Instant.ofEpochMilli(timestamp(index)).atZone(zone));
+      int bucketEnd = Math.min(end, lowerBound(interval.nextBucketStart(bucketStart).toInstant().toEpochMilli()));
+      if (!interval.spansDays()) {
+        buckets.add(SeriesStatistics.of(this, index, bucketEnd));
+        index = bucketEnd;
+        continue;
+      }
+      SeriesStatistics bucket = null;
+      while (index < bucketEnd) {
+        LocalDate day = LocalDate.ofInstant(Instant.ofEpochMilli(timestamp(index)), zone);
+        SeriesStatistics daily = dailyStatistics.get(day);
+        if (daily.oldestIndex() != index || daily.newestIndex() >= bucketEnd) {
+          daily = SeriesStatistics.of(this, index,
+                  Math.min(bucketEnd, lowerBound(day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli())));
+        }
+        bucket = SeriesStatistics.merge(this, bucket, daily);
+        index = daily.newestIndex() + 1;
+      }
+      buckets.add(bucket);
+    }
+    return buckets;
+  }
+
+  /**
+   * @return the blocks the columns are encoded in, null if they are not
+   */
+  TickBlocks blocks() {
+    return blocks;
+  }
+
+  private SeriesStatistics[] indexByWindow() {
+    SeriesStatistics[] index = new SeriesStatistics[RankingWindow.values().length];
+    if (statistics != null) {
+      long newest = timestamp(size - 1);
+      for (RankingWindow window : RankingWindow.values()) {
+        index[window.ordinal()] = window.duration()
+                .map(duration -> SeriesStatistics.of(this, lowerBound(newest - duration.toMillis() + 1), size))
+                .orElse(statistics);
+      }
+    }
+    return index;
+  }
+
+  private <K extends Comparable<? super K>> NavigableMap<K, SeriesStatistics> index(
+          SortedMap<K, SeriesStatistics> previous, int from, ZoneId zone, Function<ZonedDateTime, K> bucketOf, Function<K, ZonedDateTime> nextBucketStart) {
+    NavigableMap<K, SeriesStatistics> index = new TreeMap<>(previous);
+    while (from < size) {
+      K bucket = bucketOf.apply(Instant.ofEpochMilli(timestamp(from)).atZone(zone));
+      int to = lowerBound(nextBucketStart.apply(bucket).toInstant().toEpochMilli());
+      index.merge(bucket, SeriesStatistics.of(this, from, to),
+              (earlier, later) -> SeriesStatistics.merge(this, earlier, later));
+      from = to;
+    }
+    return index;
+  }
+
+  private static boolean isSorted(long[] values, int size) {
+    for (int i = 1; i < size; i++) {
+      if (values[i - 1] > values[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,39 @@
+package org.example.model;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Trailing time windows for which every {@link PriceSeries} precomputes its {@link SeriesStatistics}, ending at the
+ * newest entry of the series
+ */
+public enum RankingWindow {
+  LAST_24_HOURS("24h", Duration.ofHours(24)),
+  LAST_7_DAYS("7d", Duration.ofDays(7)),
+  LAST_30_DAYS("30d", Duration.ofDays(30)),
+  ALL("all", null);
+
+  private final String label;
+  private final Duration duration;
+
+  RankingWindow(String label, Duration duration) {
+    this.label = label;
+    this.duration = duration;
+  }
+
+  public String label() {
+    return label;
+  }
+
+  /**
+   * @return length of the window, empty for the whole series
+   */
+  public Optional<Duration> duration() {
+    return Optional.ofNullable(duration);
+  }
+
+  public static Optional<RankingWindow> fromLabel(String label) {
+    return Arrays.stream(values()).filter(window -> window.label.equalsIgnoreCase(label)).findFirst();
+  }
+}
@@ -0,0 +1,64 @@
+package org.example.model;
+
+/**
+ * Oldest/newest/min/max entries of a {@link PriceSeries} range, referenced by index, plus the normalized range
+ * ((max-min)/min) of that range.
+ */
+public record SeriesStatistics(int oldestIndex, int newestIndex, int minIndex, int maxIndex, double normalizedRange) {
+
+  /**
+   * Compute the statistics of the non empty range {@code [from, to)} of the series in a single pass. The min and max
+   * of the {@link TickBlocks} of a compressed series lying wholly within the range are taken from their headers.
+   */
+  public static SeriesStatistics of(PriceSeries series, int from, int to) {
+    TickBlocks blocks = series.blocks();
+    int minIndex = from;
+    int maxIndex = from;
+    double minPrice = series.price(from);
+    double maxPrice = minPrice;
+    int i = from + 1;
+    while (i < to) {
+      if (blocks != null && (i & TickBlocks.BLOCK_MASK) == 0 && i + TickBlocks.BLOCK_SIZE <= to) {
+        int block = i >>> TickBlocks.BLOCK_SHIFT;
+        if (blocks.minPrice(block) < minPrice) {
+          minIndex = blocks.minIndex(block);
+          minPrice = blocks.minPrice(block);
+        }
+        if (blocks.maxPrice(block) > maxPrice) {
+          maxIndex = blocks.maxIndex(block);
+          maxPrice = blocks.maxPrice(block);
+        }
+        i += TickBlocks.BLOCK_SIZE;
+        continue;
+      }
+      double price = series.price(i);
+      if (price < minPrice) {
+        minIndex = i;
+        minPrice = price;
+      } else if (price > maxPrice) {
+        maxIndex = i;
+        maxPrice = price;
+      }
+      i++;
+    }
+    double normalizedRange = (maxPrice - minPrice) / minPrice;
+    return new SeriesStatistics(from, to - 1, minIndex, maxIndex, normalizedRange);
+  }
+
+  /**
+   * Combine the statistics of two adjacent ranges of the series, {@code earlier} ending right before {@code later}
+   * starts. Either may be null when its range is empty.
+   */
+  public static SeriesStatistics merge(PriceSeries series, SeriesStatistics earlier, SeriesStatistics later) {
+    if (earlier == null || later == null) {
+      return earlier == null ? later : earlier;
+    }
+    int minIndex = series.price(later.minIndex()) < series.price(earlier.minIndex())
+            ? later.minIndex() : earlier.minIndex();
+    int maxIndex = series.price(later.maxIndex()) > series.price(earlier.maxIndex())
+            ? later.maxIndex() : earlier.maxIndex();
+    double minPrice = series.price(minIndex);
+    double normalizedRange = (series.price(maxIndex) - minPrice) / minPrice;
+    return new SeriesStatistics(earlier.oldestIndex(), later.newestIndex(), minIndex, maxIndex, normalizedRange);
+  }
+}
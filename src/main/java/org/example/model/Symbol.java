@@ -1,5 +1,69 @@
 package org.example.model;
 
-public enum Symbol {
-  BTC, DOGE, ETH, LTC, XRP
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Crypto currency symbol. Symbols are interned: there is a single instance per name, identified by a small int id
+ * assigned in interning order, so that per symbol data can be kept in arrays indexed by {@link #id()}.
+ */
+public final class Symbol implements Comparable<Symbol> {
+
+  private static final Map<String, Symbol> INTERNED = new ConcurrentHashMap<>();
+  private static int count;
+
+  private final String name;
+  private final int id;
+
+  private Symbol(String name, int id) {
+    this.name = name;
+    this.id = id;
+  }
+
+  /**
+   * @return the symbol of that name, interning it if needed
+   */
+  public static Symbol of(String name) {
+    Symbol symbol = INTERNED.get(name);
+    return symbol != null ? symbol : intern(name);
+  }
+
+  /**
+   * @return upper bound of the ids of the symbols interned so far
+   */
+  public static int count() {
+    synchronized (INTERNED) {
+      return count;
+    }
+  }
+
+  private static Symbol intern(String name) {
+    if (name.isBlank()) {
+      throw new IllegalArgumentException("Blank symbol name");
+    }
+    synchronized (INTERNED) {
+      return INTERNED.computeIfAbsent(name, key -> new Symbol(key, count++));
+    }
+  }
+
+  @JsonValue
+  public String name() {
+    return name;
+  }
+
+  public int id() {
+    return id;
+  }
+
+  @Override
+  public int compareTo(Symbol other) {
+    return name.compareTo(other.name);
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
 }
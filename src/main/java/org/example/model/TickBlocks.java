@@ -0,0 +1,389 @@
+package org.example.model;
+
+import java.util.Arrays;
+
+/**
+ * Compressed columns of a {@link PriceSeries}. Entries are split in blocks of {@link #BLOCK_SIZE}, each encoded as a
+ * bit stream of delta-of-delta timestamps and of prices XORed with the previous one (Gorilla encoding). Every block
+ * has a header holding its first/last timestamps and first/last/min/max prices, so that binary searches and min/max
+ * aggregates over whole blocks do not decode them. The last decoded block is kept, which makes sequential access
+ * cheap. Instances are immutable: appending re-encodes the last block only and shares the other ones.
+ */
+public final class TickBlocks {
+
+  static final int BLOCK_SHIFT = 10;
+  static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+  static final int BLOCK_MASK = BLOCK_SIZE - 1;
+  private static final int HEADER_BYTES = 6 * Long.BYTES + 2 * Integer.BYTES;
+  private static final TickBlocks EMPTY = new TickBlocks(0, 0, null);
+
+  private final int size;
+  private final long[][] data;
+  private final long[] firstTimestamps;
+  private final long[] lastTimestamps;
+  private final double[] firstPrices;
+  private final double[] lastPrices;
+  private final double[] minPrices;
+  private final double[] maxPrices;
+  private final int[] minOffsets;
+  private final int[] maxOffsets;
+  private volatile Decoded lastDecoded;
+
+  /**
+   * Copy the headers and data of the first {@code keptBlocks} blocks of {@code previous}, leaving room for the others
+   */
+  private TickBlocks(int size, int keptBlocks, TickBlocks previous) {
+    int blockCount = (size + BLOCK_MASK) >>> BLOCK_SHIFT;
+    this.size = size;
+    this.data = new long[blockCount][];
+    this.firstTimestamps = new long[blockCount];
+    this.lastTimestamps = new long[blockCount];
+    this.firstPrices = new double[blockCount];
+    this.lastPrices = new double[blockCount];
+    this.minPrices = new double[blockCount];
+    this.maxPrices = new double[blockCount];
+    this.minOffsets = new int[blockCount];
+    this.maxOffsets = new int[blockCount];
+    if (keptBlocks > 0) {
+      System.arraycopy(previous.data, 0, data, 0, keptBlocks);
+      System.arraycopy(previous.firstTimestamps, 0, firstTimestamps, 0, keptBlocks);
+      System.arraycopy(previous.lastTimestamps, 0, lastTimestamps, 0, keptBlocks);
+      System.arraycopy(previous.firstPrices, 0, firstPrices, 0, keptBlocks);
+      System.arraycopy(previous.lastPrices, 0, lastPrices, 0, keptBlocks);
+      System.arraycopy(previous.minPrices, 0, minPrices, 0, keptBlocks);
+      System.arraycopy(previous.maxPrices, 0, maxPrices, 0, keptBlocks);
+      System.arraycopy(previous.minOffsets, 0, minOffsets, 0, keptBlocks);
+      System.arraycopy(previous.maxOffsets, 0, maxOffsets, 0, keptBlocks);
+    }
+  }
+
+  /**
+   * Encode the first {@code size} entries of the given columns
+   */
+  public static TickBlocks encode(long[] timestamps, double[] prices, int size) {
+    return EMPTY.append(timestamps, prices, size);
+  }
+
+  /**
+   * @return blocks holding the entries of these ones followed by the first {@code count} entries of the given columns
+   */
+  public TickBlocks append(long[] newTimestamps, double[] newPrices, int count) {
+    int firstBlock = size >>> BLOCK_SHIFT;
+    int kept = size & BLOCK_MASK;
+    long[] timestamps = new long[kept + count];
+    double[] prices = new double[kept + count];
+    if (kept > 0) {
+      Decoded decoded = decoded(firstBlock);
+      System.arraycopy(decoded.timestamps(), 0, timestamps, 0, kept);
+      System.arraycopy(decoded.prices(), 0, prices, 0, kept);
+    }
+    System.arraycopy(newTimestamps, 0, timestamps, kept, count);
+    System.arraycopy(newPrices, 0, prices, kept, count);
+    TickBlocks appended = new TickBlocks(size + count, firstBlock, this);
+    for (int from = 0, block = firstBlock; from < timestamps.length; from += BLOCK_SIZE, block++) {
+      appended.encodeBlock(block, timestamps, prices, from, Math.min(timestamps.length, from + BLOCK_SIZE));
+    }
+    return appended;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public long timestamp(int index) {
+    int block = index >>> BLOCK_SHIFT;
+    int offset = index & BLOCK_MASK;
+    if (offset == 0) {
+      return firstTimestamps[block];
+    }
+    if (offset == blockSize(block) - 1) {
+      return lastTimestamps[block];
+    }
+    return decoded(block).timestamps()[offset];
+  }
+
+  public double price(int index) {
+    int block = index >>> BLOCK_SHIFT;
+    int offset = index & BLOCK_MASK;
+    if (offset == 0) {
+      return firstPrices[block];
+    }
+    if (offset == minOffsets[block]) {
+      return minPrices[block];
+    }
+    if (offset == maxOffsets[block]) {
+      return maxPrices[block];
+    }
+    if (offset == blockSize(block) - 1) {
+      return lastPrices[block];
+    }
+    return decoded(block).prices()[offset];
+  }
+
+  /**
+   * @return index of the first entry with a timestamp not before {@code epochMilli}, {@link #size()} if there is none.
+   * Entries must be sorted by timestamp.
+   */
+  public int lowerBound(long epochMilli) {
+    int low = 0;
+    int high = data.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (lastTimestamps[mid] < epochMilli) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    if (low == data.length) {
+      return size;
+    }
+    if (firstTimestamps[low] >= epochMilli) {
+      return low << BLOCK_SHIFT;
+    }
+    long[] timestamps = decoded(low).timestamps();
+    int index = Arrays.binarySearch(timestamps, epochMilli);
+    if (index < 0) {
+      return (low << BLOCK_SHIFT) - index - 1;
+    }
+    while (index > 0 && timestamps[index - 1] == epochMilli) {
+      index--;
+    }
+    return (low << BLOCK_SHIFT) + index;
+  }
+
+  /**
+   * Decode the entries into the given columns, which must hold at least {@link #size()} entries
+   */
+  public void copyTo(long[] timestamps, double[] prices) {
+    for (int block = 0; block < data.length; block++) {
+      Decoded decoded = decode(block);
+      System.arraycopy(decoded.timestamps(), 0, timestamps, block << BLOCK_SHIFT, decoded.timestamps().length);
+      System.arraycopy(decoded.prices(), 0, prices, block << BLOCK_SHIFT, decoded.prices().length);
+    }
+  }
+
+  /**
+   * @return number of bytes of the encoded blocks and their headers
+   */
+  public long encodedBytes() {
+    long bytes = (long) data.length * HEADER_BYTES;
+    for (long[] words : data) {
+      bytes += (long) words.length * Long.BYTES;
+    }
+    return bytes;
+  }
+
+  /**
+   * @return index of the (first) lowest price of the block
+   */
+  int minIndex(int block) {
+    return (block << BLOCK_SHIFT) + minOffsets[block];
+  }
+
+  /**
+   * @return index of the (first) highest price of the block
+   */
+  int maxIndex(int block) {
+    return (block << BLOCK_SHIFT) + maxOffsets[block];
+  }
+
+  double minPrice(int block) {
+    return minPrices[block];
+  }
+
+  double maxPrice(int block) {
+    return maxPrices[block];
+  }
+
+  private int blockSize(int block) {
+    return block == data.length - 1 ? size - (block << BLOCK_SHIFT) : BLOCK_SIZE;
+  }
+
+  private void encodeBlock(int block, long[] timestamps, double[] prices, int from, int to) {
+    BitWriter out = new BitWriter(to - from);
+    int minOffset = 0;
+    int maxOffset = 0;
+    long previousDelta = 0;
+    long previousBits = Double.doubleToRawLongBits(prices[from]);
+    int previousLeading = -1;
+    int previousTrailing = 0;
+    for (int i = from + 1; i < to; i++) {
+      long delta = timestamps[i] - timestamps[i - 1];
+      writeDeltaOfDelta(out, delta - previousDelta);
+      previousDelta = delta;
+
+      long bits = Double.doubleToRawLongBits(prices[i]);
+      long xor = bits ^ previousBits;
+      if (xor == 0) {
+        out.write(0, 1);
+      } else {
+        int leading = Math.min(31, Long.numberOfLeadingZeros(xor));
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+          out.write(0b10, 2);
+          out.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+        } else {
+          int meaningful = 64 - leading - trailing;
+          out.write(0b11, 2);
+          out.write(leading, 5);
+          out.write(meaningful - 1, 6);
+          out.write(xor >>> trailing, meaningful);
+          previousLeading = leading;
+          previousTrailing = trailing;
+        }
+      }
+      previousBits = bits;
+
+      if (prices[i] < prices[from + minOffset]) {
+        minOffset = i - from;
+      } else if (prices[i] > prices[from + maxOffset]) {
+        maxOffset = i - from;
+      }
+    }
+    data[block] = out.words();
+    firstTimestamps[block] = timestamps[from];
+    lastTimestamps[block] = timestamps[to - 1];
+    firstPrices[block] = prices[from];
+    lastPrices[block] = prices[to - 1];
+    minPrices[block] = prices[from + minOffset];
+    maxPrices[block] = prices[from + maxOffset];
+    minOffsets[block] = minOffset;
+    maxOffsets[block] = maxOffset;
+  }
+
+  private Decoded decoded(int block) {
+    Decoded decoded = lastDecoded;
+    if (decoded == null || decoded.block() != block) {
+      decoded = decode(block);
+      lastDecoded = decoded;
+    }
+    return decoded;
+  }
+
+  private Decoded decode(int block) {
+    int count = blockSize(block);
+    long[] timestamps = new long[count];
+    double[] prices = new double[count];
+    timestamps[0] = firstTimestamps[block];
+    prices[0] = firstPrices[block];
+    BitReader in = new BitReader(data[block]);
+    long delta = 0;
+    long bits = Double.doubleToRawLongBits(prices[0]);
+    int leading = 0;
+    int trailing = 0;
+    for (int i = 1; i < count; i++) {
+      delta += readDeltaOfDelta(in);
+      timestamps[i] = timestamps[i - 1] + delta;
+      if (in.read(1) == 1) {
+        if (in.read(1) == 1) {
+          leading = (int) in.read(5);
+          trailing = 64 - leading - (int) in.read(6) - 1;
+        }
+        bits ^= in.read(64 - leading - trailing) << trailing;
+      }
+      prices[i] = Double.longBitsToDouble(bits);
+    }
+    return new Decoded(block, timestamps, prices);
+  }
+
+  /**
+   * Write the delta-of-delta with a prefix telling its width: 0 for none, then 7, 9, 12, 32 or 64 bits
+   */
+  private static void writeDeltaOfDelta(BitWriter out, long deltaOfDelta) {
+    if (deltaOfDelta == 0) {
+      out.write(0, 1);
+    } else if (fits(deltaOfDelta, 7)) {
+      out.write(0b10, 2);
+      out.write(deltaOfDelta, 7);
+    } else if (fits(deltaOfDelta, 9)) {
+      out.write(0b110, 3);
+      out.write(deltaOfDelta, 9);
+    } else if (fits(deltaOfDelta, 12)) {
+      out.write(0b1110, 4);
+      out.write(deltaOfDelta, 12);
+    } else if (fits(deltaOfDelta, 32)) {
+      out.write(0b11110, 5);
+      out.write(deltaOfDelta, 32);
+    } else {
+      out.write(0b11111, 5);
+      out.write(deltaOfDelta, 64);
+    }
+  }
+
+  private static long readDeltaOfDelta(BitReader in) {
+    if (in.read(1) == 0) {
+      return 0;
+    }
+    for (int bits : new int[]{7, 9, 12, 32}) {
+      if (in.read(1) == 0) {
+        long value = in.read(bits);
+        return value << (64 - bits) >> (64 - bits);
+      }
+    }
+    return in.read(64);
+  }
+
+  private static boolean fits(long value, int bits) {
+    return value >= -(1L << (bits - 1)) && value < 1L << (bits - 1);
+  }
+
+  private record Decoded(int block, long[] timestamps, double[] prices) {
+  }
+
+  private static final class BitWriter {
+
+    private long[] words;
+    private long position;
+
+    private BitWriter(int entries) {
+      this.words = new long[Math.max(1, entries / 2)];
+    }
+
+    /**
+     * Append the lowest {@code bits} bits of the value, most significant first
+     */
+    private void write(long value, int bits) {
+      if (bits < 64) {
+        value &= (1L << bits) - 1;
+      }
+      int word = (int) (position >>> 6);
+      if (word + 1 >= words.length) {
+        words = Arrays.copyOf(words, words.length * 2 + 2);
+      }
+      int free = 64 - (int) (position & 63);
+      if (bits <= free) {
+        words[word] |= value << (free - bits);
+      } else {
+        words[word] |= value >>> (bits - free);
+        words[word + 1] |= value << (64 - (bits - free));
+      }
+      position += bits;
+    }
+
+    private long[] words() {
+      return Arrays.copyOf(words, (int) ((position + 63) >>> 6));
+    }
+  }
+
+  private static final class BitReader {
+
+    private final long[] words;
+    private long position;
+
+    private BitReader(long[] words) {
+      this.words = words;
+    }
+
+    private long read(int bits) {
+      int word = (int) (position >>> 6);
+      int used = (int) (position & 63);
+      long value = words[word] << used >>> (64 - bits);
+      if (bits > 64 - used) {
+        value |= words[word + 1] >>> (128 - used - bits);
+      }
+      position += bits;
+      return value;
+    }
+  }
+}
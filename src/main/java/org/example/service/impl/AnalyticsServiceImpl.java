@@ -0,0 +1,229 @@
+package org.example.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.exception.InvalidRequestException;
+import org.example.model.Candle;
+import org.example.model.CandleInterval;
+import org.example.model.CorrelationMatrix;
+import org.example.model.IndicatorPoint;
+import org.example.model.PriceSeries;
+import org.example.model.Symbol;
+import org.example.service.impl.util.CryptoServiceUtil;
+import org.example.service.spec.AnalyticsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * {@link AnalyticsService} over the cached series of {@link CryptoServiceImpl}. Every symbol is resampled to the
+ * closes of its candles, then the indicators are computed in one pass with sliding window sums, in O(1) per bucket.
+ * Returns are only computed between adjacent buckets, a bucket following one without entries having none. The
+ * computations run sequentially on the thread calling the prepared supplier, so that the compute pool they are
+ * submitted to bounds the cores they use.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+  private final CryptoServiceImpl cryptoService;
+
+  @Value("${analytics.window.maximum}")
+  private int maxWindow;
+
+  public Map<Symbol, List<IndicatorPoint>> getIndicators(
+          List<Symbol> symbols, Instant from, Instant to, String interval, int window) throws InvalidRequestException {
+    return prepareIndicators(symbols, from, to, interval, window).get();
+  }
+
+  public Supplier<Map<Symbol, List<IndicatorPoint>>> prepareIndicators(
+          List<Symbol> symbols, Instant from, Instant to, String interval, int window) throws InvalidRequestException {
+    CandleInterval candleInterval = validate(from, to, interval);
+    if (window < 2 || window > maxWindow) {
+      throw new InvalidRequestException("Window must be between 2 and " + maxWindow + " buckets");
+    }
+    List<PriceSeries> seriesList = cryptoService.series(symbols);
+    return () -> {
+      List<List<IndicatorPoint>> indicators = seriesList.stream()
+              .map(series -> indicators(candles(series, from, to, candleInterval), candleInterval, window))
+              .toList();
+      Map<Symbol, List<IndicatorPoint>> indicatorsBySymbol = new LinkedHashMap<>();
+      for (int i = 0; i < seriesList.size(); i++) {
+        indicatorsBySymbol.put(seriesList.get(i).symbol(), indicators.get(i));
+      }
+      return indicatorsBySymbol;
+    };
+  }
+
+  public CorrelationMatrix getCorrelations(List<Symbol> symbols, Instant from, Instant to, String interval)
+          throws InvalidRequestException {
+    return prepareCorrelations(symbols, from, to, interval).get();
+  }
+
+  public Supplier<CorrelationMatrix> prepareCorrelations(
+          List<Symbol> symbols, Instant from, Instant to, String interval) throws InvalidRequestException {
+    CandleInterval candleInterval = validate(from, to, interval);
+    List<PriceSeries> seriesList = cryptoService.series(symbols);
+    return () -> {
+      List<List<Candle>> candles = seriesList.stream()
+              .map(series -> candles(series, from, to, candleInterval))
+              .toList();
+      Double[][] correlations = new Double[seriesList.size()][seriesList.size()];
+      for (int i = 0; i < seriesList.size(); i++) {
+        for (int j = i; j < seriesList.size(); j++) {
+          correlations[i][j] = correlation(candles.get(i), candles.get(j), candleInterval);
+          correlations[j][i] = correlations[i][j];
+        }
+      }
+      return new CorrelationMatrix(seriesList.stream().map(PriceSeries::symbol).toList(), correlations);
+    };
+  }
+
+  private static CandleInterval validate(Instant from, Instant to, String interval) throws InvalidRequestException {
+    CandleInterval candleInterval = CandleInterval.fromLabel(interval)
+            .orElseThrow(() -> new InvalidRequestException("Unknown interval " + interval));
+    if (from != null && to != null && !from.isBefore(to)) {
+      throw new InvalidRequestException("From must be before to");
+    }
+    return candleInterval;
+  }
+
+  private static List<Candle> candles(PriceSeries series, Instant from, Instant to, CandleInterval interval) {
+    return series.statistics(
+                    from == null ? Long.MIN_VALUE : from.toEpochMilli(),
+                    to == null ? Long.MAX_VALUE : to.toEpochMilli(),
+                    interval)
+            .stream()
+            .map(bucket -> CryptoServiceUtil.toCandle(series, bucket, interval))
+            .toList();
+  }
+
+  private static List<IndicatorPoint> indicators(List<Candle> candles, CandleInterval interval, int window) {
+    List<IndicatorPoint> points = new ArrayList<>(candles.size());
+    SlidingWindow closes = new SlidingWindow(window);
+    SlidingWindow returns = new SlidingWindow(window);
+    double alpha = 2d / (window + 1);
+    double ema = 0;
+    for (int i = 0; i < candles.size(); i++) {
+      double close = candles.get(i).close();
+      Double periodReturn = null;
+      if (i > 0 && isNext(candles.get(i - 1).start(), candles.get(i).start(), interval)) {
+        periodReturn = close / candles.get(i - 1).close() - 1;
+        returns.add(periodReturn);
+      }
+      closes.add(close);
+      ema = i == 0 ? close : ema + alpha * (close - ema);
+      points.add(new IndicatorPoint(
+              candles.get(i).start(),
+              close,
+              periodReturn,
+              closes.isFull() ? closes.mean() : null,
+              closes.isFull() ? ema : null,
+              returns.isFull() ? returns.standardDeviation() : null));
+    }
+    return points;
+  }
+
+  /**
+   * Pearson correlation of the returns between the adjacent buckets both symbols have entries in, in one pass merging
+   * the two time sorted candle lists
+   */
+  private static Double correlation(List<Candle> first, List<Candle> second, CandleInterval interval) {
+    double sumX = 0;
+    double sumY = 0;
+    double sumXX = 0;
+    double sumYY = 0;
+    double sumXY = 0;
+    int count = 0;
+    LocalDateTime previousStart = null;
+    double previousX = Double.NaN;
+    double previousY = Double.NaN;
+    for (int i = 0, j = 0; i < first.size() && j < second.size(); ) {
+      int order = first.get(i).start().compareTo(second.get(j).start());
+      if (order < 0) {
+        i++;
+      } else if (order > 0) {
+        j++;
+      } else {
+        LocalDateTime start = first.get(i).start();
+        double x = first.get(i++).close();
+        double y = second.get(j++).close();
+        if (previousStart != null && isNext(previousStart, start, interval)) {
+          double returnX = x / previousX - 1;
+          double returnY = y / previousY - 1;
+          sumX += returnX;
+          sumY += returnY;
+          sumXX += returnX * returnX;
+          sumYY += returnY * returnY;
+          sumXY += returnX * returnY;
+          count++;
+        }
+        previousStart = start;
+        previousX = x;
+        previousY = y;
+      }
+    }
+    double denominator = Math.sqrt((count * sumXX - sumX * sumX) * (count * sumYY - sumY * sumY));
+    if (count < 2 || !(denominator > 0)) {
+      return null;
+    }
+    return Math.max(-1, Math.min(1, (count * sumXY - sumX * sumY) / denominator));
+  }
+
+  private static boolean isNext(LocalDateTime previousStart, LocalDateTime start, CandleInterval interval) {
+    return interval.nextBucketStart(previousStart.atZone(ZoneId.systemDefault())).toLocalDateTime().equals(start);
+  }
+
+  /**
+   * Last values added, with their running sum and sum of squares so that the mean and standard deviation are
+   * updated in O(1) as values enter and leave the window
+   */
+  private static final class SlidingWindow {
+
+    private final double[] values;
+    private int count;
+    private int next;
+    private double sum;
+    private double sumOfSquares;
+
+    private SlidingWindow(int size) {
+      this.values = new double[size];
+    }
+
+    private void add(double value) {
+      if (count == values.length) {
+        double evicted = values[next];
+        sum -= evicted;
+        sumOfSquares -= evicted * evicted;
+      } else {
+        count++;
+      }
+      values[next] = value;
+      next = (next + 1) % values.length;
+      sum += value;
+      sumOfSquares += value * value;
+    }
+
+    private boolean isFull() {
+      return count == values.length;
+    }
+
+    private double mean() {
+      return sum / count;
+    }
+
+    /**
+     * @return sample standard deviation of the values
+     */
+    private double standardDeviation() {
+      return Math.sqrt(Math.max(0, (sumOfSquares - sum * sum / count) / (count - 1)));
+    }
+  }
+}
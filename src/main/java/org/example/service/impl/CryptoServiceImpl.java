@@ -1,49 +1,62 @@
 package org.example.service.impl;
 
-import com.opencsv.CSVReader;
-import com.opencsv.bean.CsvToBean;
-import com.opencsv.bean.CsvToBeanBuilder;
-import com.opencsv.exceptions.CsvValidationException;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.tuple.Pair;
+import org.example.exception.CryptoDataLoadException;
 import org.example.exception.InvalidDateException;
+import org.example.exception.InvalidRequestException;
+import org.example.model.CacheStatistics;
+import org.example.model.Candle;
+import org.example.model.CandleInterval;
 import org.example.model.Crypto;
+import org.example.model.CryptoStatistics;
+import org.example.model.NormalizedRangeRank;
+import org.example.model.PriceSeries;
+import org.example.model.RankingWindow;
+import org.example.model.SeriesStatistics;
 import org.example.model.Symbol;
+import org.example.service.impl.index.DailyRangeIndex;
+import org.example.service.impl.index.MarketView;
 import org.example.service.impl.util.CryptoServiceUtil;
 import org.example.service.spec.CryptoService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.time.DateTimeException;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class CryptoServiceImpl implements CryptoService {
 
-  private final CacheManager cacheManager;
-  private final ResourceLoader resourceLoader;
-  private static final Logger logger = LoggerFactory.getLogger(CryptoServiceImpl.class);
+  private final AsyncLoadingCache<Symbol, PriceSeries> cryptoDataCache;
+  private final PriceSeriesLoader priceSeriesLoader;
+  private final SymbolRegistry symbolRegistry;
+  private final DailyRangeIndex dailyRangeIndex = new DailyRangeIndex();
+  private final ReentrantLock marketViewLock = new ReentrantLock();
+  private volatile MarketView marketView;
+
+  @Value("${cache.refresh.interval.minutes}")
+  private long refreshInterval = 10;
 
   public List<Crypto> readCSVFiles(Symbol... filePaths) {
     List<Crypto> cryptos = new ArrayList<>();
-    for (Symbol filePath : filePaths) {
-      try {
-        cryptos.addAll(readCryptoFromCsv(filePath));
-      } catch (IOException e) {
-        throw new RuntimeException(e);
+    for (PriceSeries series : readSeries(filePaths)) {
+      for (int i = 0; i < series.size(); i++) {
+        cryptos.add(CryptoServiceUtil.toCrypto(series, i));
       }
     }
     return cryptos;
@@ -51,156 +64,230 @@ public class CryptoServiceImpl implements CryptoService {
 
   public Map<String, List<Crypto>> getStatisticsByMonthAndYear(
           Integer year, Integer month) throws InvalidDateException {
-    validateYearMonthParameters(year, month);
+    CryptoServiceUtil.validateYearMonthParameters(year, month);
+    YearMonth yearMonth = YearMonth.of(year, month);
+
+    List<Crypto> oldest = new ArrayList<>();
+    List<Crypto> newest = new ArrayList<>();
+    List<Crypto> minimum = new ArrayList<>();
+    List<Crypto> maximum = new ArrayList<>();
+    for (PriceSeries series : series(null)) {
+      series.statistics(yearMonth).ifPresent(statistics -> {
+        oldest.add(CryptoServiceUtil.toCrypto(series, statistics.oldestIndex()));
+        newest.add(CryptoServiceUtil.toCrypto(series, statistics.newestIndex()));
+        minimum.add(CryptoServiceUtil.toCrypto(series, statistics.minIndex()));
+        maximum.add(CryptoServiceUtil.toCrypto(series, statistics.maxIndex()));
+      });
+    }
+
     Map<String, List<Crypto>> cryptoMap = new HashMap<>();
-    cryptoMap.put("OLDEST", getCryptoForYearAndMonth(year, month, CryptoServiceUtil.COMPARING_TIMESTAMP));
-    cryptoMap.put("NEWEST", getCryptoForYearAndMonth(year, month, CryptoServiceUtil.COMPARING_TIMESTAMP.reversed()));
-    cryptoMap.put("MINIMUM", getCryptoForYearAndMonth(year, month, CryptoServiceUtil.COMPARING_PRICE));
-    cryptoMap.put("MAXIMUM", getCryptoForYearAndMonth(year, month, CryptoServiceUtil.COMPARING_PRICE.reversed()));
+    cryptoMap.put("OLDEST", oldest);
+    cryptoMap.put("NEWEST", newest);
+    cryptoMap.put("MINIMUM", minimum);
+    cryptoMap.put("MAXIMUM", maximum);
     return cryptoMap;
   }
 
   public List<Pair<String, Crypto>> getStatisticsForCertainCrypto(Symbol crypto) {
+    PriceSeries series = readSeries(crypto).get(0);
+    SeriesStatistics statistics = series.statistics().orElseThrow();
     List<Pair<String, Crypto>> cryptos = new ArrayList<>();
-    cryptos.add(Pair.of(crypto.name() + "-oldest", getCryptoByType(crypto, CryptoServiceUtil.COMPARING_TIMESTAMP)));
-    cryptos.add(Pair.of(crypto.name() + "-newest", getCryptoByType(
-            crypto,
-            CryptoServiceUtil.COMPARING_TIMESTAMP.reversed())));
-    cryptos.add(Pair.of(crypto.name() + "-min", getCryptoByType(crypto, CryptoServiceUtil.COMPARING_PRICE)));
-    cryptos.add(Pair.of(crypto.name() + "-max", getCryptoByType(crypto, CryptoServiceUtil.COMPARING_PRICE.reversed())));
+    cryptos.add(Pair.of(crypto.name() + "-oldest", CryptoServiceUtil.toCrypto(series, statistics.oldestIndex())));
+    cryptos.add(Pair.of(crypto.name() + "-newest", CryptoServiceUtil.toCrypto(series, statistics.newestIndex())));
+    cryptos.add(Pair.of(crypto.name() + "-min", CryptoServiceUtil.toCrypto(series, statistics.minIndex())));
+    cryptos.add(Pair.of(crypto.name() + "-max", CryptoServiceUtil.toCrypto(series, statistics.maxIndex())));
     return cryptos;
   }
 
+  public Map<Symbol, Map<String, CryptoStatistics>> getStatistics(List<Symbol> symbols, List<YearMonth> months) {
+    List<PriceSeries> seriesList = series(symbols);
+    List<YearMonth> sortedMonths = months == null ? List.of() : months.stream().distinct().sorted().toList();
+    Map<Symbol, Map<String, CryptoStatistics>> statistics = new LinkedHashMap<>();
+    for (PriceSeries series : seriesList) {
+      Map<String, CryptoStatistics> symbolStatistics = new LinkedHashMap<>();
+      series.statistics().ifPresent(all ->
+              symbolStatistics.put(RankingWindow.ALL.label(), CryptoServiceUtil.toStatistics(series, all)));
+      for (YearMonth month : sortedMonths) {
+        series.statistics(month).ifPresent(monthly ->
+                symbolStatistics.put(month.toString(), CryptoServiceUtil.toStatistics(series, monthly)));
+      }
+      statistics.put(series.symbol(), symbolStatistics);
+    }
+    return statistics;
+  }
+
   public Crypto getCryptoWithHighestNormalizedRange(LocalDate date) {
-    List<Crypto> cryptos = calculateNormalizedRangesAndSort();
-    return cryptos.stream().filter(crypto -> crypto.getTimestamp().toLocalDate().equals(date)).peek(System.out::println).findFirst().orElseThrow(() -> new DateTimeException("Invalid DateTime"));
+    marketView();
+    DailyRangeIndex.Entry highest = dailyRangeIndex.highest(date)
+            .orElseThrow(() -> new DateTimeException("Invalid DateTime"));
+    return new Crypto(
+            CryptoServiceUtil.toLocalDateTime(highest.timestamp()),
+            highest.symbol(),
+            highest.price(),
+            highest.normalizedRange());
   }
 
-  public List<Double> getAllPrices(Symbol... filePaths) throws CsvValidationException {
+  public List<Double> getAllPrices(Symbol... filePaths) {
     List<Double> columnValues = new ArrayList<>();
-
-    for (Symbol filePath : filePaths) {
-      try (BufferedReader reader = new BufferedReader(new InputStreamReader(getResource(filePath).getInputStream()))) {
-        CSVReader csvReader = new CSVReader(reader);
-        csvReader.skip(1);
-        String[] nextLine;
-        while ((nextLine = csvReader.readNext()) != null) {
-          if (nextLine.length >= 3) {
-            columnValues.add(Double.valueOf(nextLine[2]));
-          }
-        }
-      } catch (IOException | CsvValidationException e) {
-        throw new CsvValidationException(e.getMessage());
+    for (PriceSeries series : readSeries(filePaths)) {
+      for (int i = 0; i < series.size(); i++) {
+        columnValues.add(series.price(i));
       }
     }
     return columnValues;
   }
 
   public List<Crypto> calculateNormalizedRangesAndSort() {
-    List<Crypto> cryptoList = readCSVFiles(Symbol.values());
-    enhanceCryptoWithNormalizeValue(cryptoList);
-    return getSortedByNormalizedValue(cryptoList);
-  }
-
-  private Resource getResource(Symbol filePath) {
-    return resourceLoader.getResource("classpath:external/" + filePath + "_values.csv");
+    return sortedByNormalizedRange(0, Long.MAX_VALUE).collect(Collectors.toList());
   }
 
-  private boolean isWithinMonth(LocalDateTime dateTime, LocalDateTime startOfMonth, LocalDateTime endOfMonth) {
-    return !dateTime.isBefore(startOfMonth) && !dateTime.isAfter(endOfMonth);
+  public List<Crypto> calculateNormalizedRangesAndSort(long offset, long limit) throws InvalidRequestException {
+    validatePageParameters(offset, limit);
+    return sortedByNormalizedRange(offset, limit).collect(Collectors.toList());
   }
 
-  private Crypto getCryptoByType(Symbol crypto, Comparator<Crypto> comparator) {
-    return readCSVFiles(crypto).stream().min(comparator).orElseThrow();
+  public Stream<Crypto> streamNormalizedRangesAndSort(long offset, long limit) throws InvalidRequestException {
+    validatePageParameters(offset, limit);
+    return sortedByNormalizedRange(offset, limit);
   }
 
-  public List<Crypto> readCryptoFromCsv(Symbol filePath) throws IOException {
-    Cache cache = cacheManager.getCache(CryptoServiceUtil.CACHE_NAME);
-    Resource resource = getResource(filePath);
-    if (cache != null) {
-      if (isKeyInCache(cache, filePath.name())) {
-        return getCryptoFromCache(filePath, cache);
-      } else {
-        return getCryptosFromResource(filePath, resource, cache);
-      }
+  /**
+   * The rows of the page are located with the row counts of the view, then read from the series of the symbols they
+   * fall in, as currently cached
+   */
+  private Stream<Crypto> sortedByNormalizedRange(long offset, long limit) {
+    MarketView view = marketView();
+    List<Symbol> symbols = new ArrayList<>();
+    List<int[]> ranges = new ArrayList<>();
+    long remaining = limit;
+    for (int index = view.seriesOfRow(offset); index < view.byNormalizedRange().size() && remaining > 0; index++) {
+      int from = (int) Math.max(0, offset - view.firstRow(index));
+      int to = from + (int) Math.min(view.rows(index) - from, remaining);
+      symbols.add(view.byNormalizedRange().get(index));
+      ranges.add(new int[]{from, to});
+      remaining -= to - from;
     }
-    throw new RuntimeException("Cache in null");
-  }
-
-  private static ArrayList<Crypto> getCryptosFromResource(
-          Symbol filePath, Resource resource, Cache cache) throws IOException {
-    logger.info("Loading from resource " + filePath);
-    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-            resource.getInputStream(),
-            StandardCharsets.UTF_8))) {
-      CsvToBean<Crypto> csvToBean =
-              new CsvToBeanBuilder<Crypto>(reader).withSkipLines(1).withType(Crypto.class).withIgnoreLeadingWhiteSpace(true).build();
-      ArrayList<Crypto> cryptoListFromResource = new ArrayList<>(csvToBean.parse());
-      cache.put(filePath.name(), cryptoListFromResource);
-      return cryptoListFromResource;
+    List<PriceSeries> seriesList = readSeries(symbols.toArray(Symbol[]::new));
+    List<Stream<Crypto>> pages = new ArrayList<>();
+    for (int i = 0; i < seriesList.size(); i++) {
+      PriceSeries series = seriesList.get(i);
+      int to = Math.min(ranges.get(i)[1], series.size());
+      int from = Math.min(ranges.get(i)[0], to);
+      Double normalizedRange = series.statistics().map(SeriesStatistics::normalizedRange).orElse(0d);
+      pages.add(IntStream.range(from, to).mapToObj(row -> CryptoServiceUtil.toCrypto(series, row, normalizedRange)));
     }
+    return pages.stream().flatMap(Function.identity());
   }
 
-  private static List<Crypto> getCryptoFromCache(Symbol filePath, Cache cache) {
-    logger.info("Loading from cache " + filePath);
-    Cache.ValueWrapper valueWrapper = cache.get(filePath.name());
-    return (List<Crypto>) valueWrapper.get();
+  public List<NormalizedRangeRank> rankByNormalizedRange(String window, Integer top) throws InvalidRequestException {
+    RankingWindow rankingWindow = RankingWindow.fromLabel(window)
+            .orElseThrow(() -> new InvalidRequestException("Unknown window " + window));
+    if (top != null && top < 1) {
+      throw new InvalidRequestException("Top must be positive");
+    }
+    List<NormalizedRangeRank> ranking = marketView().ranking(rankingWindow);
+    return top == null || top >= ranking.size() ? ranking : ranking.subList(0, top);
   }
 
-  private static List<Crypto> getSortedByNormalizedValue(List<Crypto> cryptoList) {
-    return cryptoList.parallelStream().sorted(Comparator.comparingDouble(Crypto::getNormalizedRange).reversed()).collect(Collectors.toList());
+  public List<Candle> getCandles(List<Symbol> symbols, Instant from, Instant to, String interval)
+          throws InvalidRequestException {
+    return prepareCandles(symbols, from, to, interval).get();
   }
 
-  private static Double getMaxPriceForSymbol(List<Crypto> cryptoList, Symbol symbol) {
-    return cryptoList.stream().filter(c -> c.getSymbol().equals(symbol)).mapToDouble(Crypto::getPrice).max().orElse(0);
+  public Supplier<List<Candle>> prepareCandles(List<Symbol> symbols, Instant from, Instant to, String interval)
+          throws InvalidRequestException {
+    CandleInterval candleInterval = CandleInterval.fromLabel(interval)
+            .orElseThrow(() -> new InvalidRequestException("Unknown interval " + interval));
+    if (from == null || to == null || !from.isBefore(to)) {
+      throw new InvalidRequestException("From must be before to");
+    }
+    List<PriceSeries> seriesList = series(symbols);
+    return () -> {
+      List<Candle> candles = new ArrayList<>();
+      for (PriceSeries series : seriesList) {
+        for (SeriesStatistics bucket : series.statistics(from.toEpochMilli(), to.toEpochMilli(), candleInterval)) {
+          candles.add(CryptoServiceUtil.toCandle(series, bucket, candleInterval));
+        }
+      }
+      return candles;
+    };
   }
 
-  private static Double getMinPriceForSymbol(List<Crypto> cryptoList, Symbol symbol) {
-    return cryptoList.stream().filter(c -> c.getSymbol().equals(symbol)).mapToDouble(Crypto::getPrice).min().orElse(0);
+  public CacheStatistics getCacheStatistics() {
+    return CacheStatistics.of(cryptoDataCache.synchronous().estimatedSize(), cryptoDataCache.synchronous().stats());
   }
 
-  private List<Crypto> getCryptoForYearAndMonth(Integer year, Integer month, Comparator<Crypto> comparator) {
-    List<Crypto> resultCryptos = new ArrayList<>();
-
-    for (Symbol filePath : Symbol.values()) {
-      List<Crypto> cryptoList = readCSVFiles(filePath);
-
-      LocalDateTime startOfMonth = LocalDateTime.of(year, month, 1, 0, 0);
-      LocalDateTime endOfMonth = startOfMonth.plusMonths(1).minusNanos(1);
-
-      resultCryptos.addAll(filterByYearAndMonth(cryptoList, startOfMonth, endOfMonth, comparator));
-    }
-
-    return resultCryptos;
+  /**
+   * @return the current series of the symbols ordered by symbol, of all available symbols if none is given
+   */
+  public List<PriceSeries> series(List<Symbol> symbols) {
+    return symbols == null || symbols.isEmpty()
+            ? readSeries(symbolRegistry.symbols().toArray(Symbol[]::new))
+            : readSeries(symbols.stream().distinct().sorted().toArray(Symbol[]::new));
   }
 
-  private List<Crypto> filterByYearAndMonth(
-          List<Crypto> cryptoList, LocalDateTime startOfMonth, LocalDateTime endOfMonth,
-          Comparator<Crypto> comparator) {
-    return cryptoList.stream().filter(crypto -> isWithinMonth(crypto.getTimestamp(), startOfMonth, endOfMonth)).min(comparator).stream().collect(Collectors.toList());
+  /**
+   * @return the view of the current series of every symbol, built again only when a series changed since (see
+   * {@link PriceSeriesLoader#generation()}), the symbols changed, or it is older than the refresh interval so that the
+   * series get refreshed. The series are only held while the view and the daily index are built, the index dropping
+   * the symbols no longer available.
+   * Built under a lock rather than a monitor, as waiting for the series loads would pin a virtual thread.
+   */
+  MarketView marketView() {
+    MarketView view = marketView;
+    if (isCurrent(view)) {
+      return view;
+    }
+    marketViewLock.lock();
+    try {
+      if (isCurrent(marketView)) {
+        return marketView;
+      }
+      long generation = priceSeriesLoader.generation();
+      List<Symbol> symbols = symbolRegistry.symbols();
+      List<PriceSeries> series = readSeries(symbols.toArray(Symbol[]::new));
+      dailyRangeIndex.retain(symbols);
+      series.forEach(dailyRangeIndex::update);
+      marketView = new MarketView(generation, symbols, series);
+      return marketView;
+    } finally {
+      marketViewLock.unlock();
+    }
   }
 
-  private void enhanceCryptoWithNormalizeValue(List<Crypto> cryptoList) {
-    cryptoList.forEach(crypto -> {
-      double maxPrice = getMaxPriceForSymbol(cryptoList, crypto.getSymbol());
-      double minPrice = getMinPriceForSymbol(cryptoList, crypto.getSymbol());
-
-      double normalizedRange = (maxPrice - minPrice) / minPrice;
-      crypto.setNormalizedRange(normalizedRange);
-    });
+  private boolean isCurrent(MarketView view) {
+    return view != null
+            && view.generation() == priceSeriesLoader.generation()
+            && view.symbols() == symbolRegistry.symbols()
+            && System.nanoTime() - view.builtAt() < TimeUnit.MINUTES.toNanos(refreshInterval);
   }
 
-  private void validateYearMonthParameters(Integer year, Integer month) throws InvalidDateException {
-    if (year == null || month == null || year < 0 || month < 1 || month > 12) {
-      throw new InvalidDateException("Invalid year or month");
+  private List<PriceSeries> readSeries(Symbol... filePaths) {
+    List<CompletableFuture<PriceSeries>> loads = Arrays.stream(filePaths).map(cryptoDataCache::get).toList();
+    List<PriceSeries> seriesList = new ArrayList<>(filePaths.length);
+    List<Symbol> failedSymbols = new ArrayList<>();
+    Throwable failure = null;
+    for (int i = 0; i < filePaths.length; i++) {
+      try {
+        seriesList.add(loads.get(i).join());
+      } catch (CompletionException e) {
+        failedSymbols.add(filePaths[i]);
+        if (failure == null) {
+          failure = e.getCause();
+        } else if (failure != e.getCause()) {
+          failure.addSuppressed(e.getCause());
+        }
+      }
+    }
+    if (!failedSymbols.isEmpty()) {
+      throw new CryptoDataLoadException(failedSymbols, failure);
     }
+    return seriesList;
   }
 
-  public boolean isKeyInCache(Cache cache, Object key) {
-    if (cache != null) {
-      Cache.ValueWrapper valueWrapper = cache.get(key);
-      return valueWrapper != null && valueWrapper.get() != null;
+  private void validatePageParameters(long offset, long limit) throws InvalidRequestException {
+    if (offset < 0 || limit < 0) {
+      throw new InvalidRequestException("Offset and limit must not be negative");
     }
-    return false;
   }
 }
@@ -0,0 +1,237 @@
+package org.example.service.impl;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.example.model.PriceSeries;
+import org.example.model.Symbol;
+import org.example.service.impl.util.PriceCsvParser;
+import org.example.service.impl.util.PriceSeriesSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the {@link PriceSeries} of a {@link Symbol} from its csv file, or from its binary snapshot when enabled, and
+ * compresses it when {@code series.compression.enabled}. A refresh keeps the current series as long as the csv it was
+ * read from has not changed, or always when the data location is watched, appended rows being then added by
+ * {@link WatchDirectoryIngestion}. A watched csv is then only loaded up to its last line terminator.
+ */
+@Component
+@RequiredArgsConstructor
+public class PriceSeriesLoader implements CacheLoader<Symbol, PriceSeries> {
+
+  static final String FILE_SUFFIX = "_values.csv";
+  private static final int TAIL_BUFFER_SIZE = 1 << 13;
+
+  private final ResourceLoader resourceLoader;
+  private final MeterRegistry meterRegistry;
+  private final Map<Symbol, Source> loadedSources = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+  private final Map<Symbol, Long> generations = new ConcurrentHashMap<>();
+  private static final Logger logger = LoggerFactory.getLogger(PriceSeriesLoader.class);
+
+  @Value("${crypto.data.location}")
+  private String dataLocation = "classpath:external/";
+
+  @Value("${ingestion.watch.enabled}")
+  private boolean watchEnabled;
+
+  @Value("${snapshot.enabled}")
+  private boolean snapshotEnabled;
+
+  @Value("${snapshot.directory}")
+  private String snapshotDirectory;
+
+  @Value("${series.compression.enabled}")
+  private boolean compressionEnabled;
+
+  @Override
+  public PriceSeries load(Symbol symbol) throws IOException {
+    Source source = watchEnabled ? completeLines(symbol, source(symbol)) : source(symbol);
+    PriceSeries series = read(symbol, source);
+    if (compressionEnabled) {
+      series = series.compressed();
+      logger.info("Compressed {} entries of {} in {} bytes", series.size(), symbol, series.columnBytes());
+    }
+    if (!source.equals(loadedSources.put(symbol, source))) {
+      changed(symbol);
+    }
+    return series;
+  }
+
+  @Override
+  public PriceSeries reload(Symbol symbol, PriceSeries oldValue) throws IOException {
+    if (watchEnabled || source(symbol).equals(loadedSources.get(symbol))) {
+      return oldValue;
+    }
+    return load(symbol);
+  }
+
+  /**
+   * @return last modification time and length of the csv of the symbol
+   */
+  public Source source(Symbol symbol) throws IOException {
+    Resource resource = getResource(symbol);
+    return new Source(resource.lastModified(), resource.contentLength());
+  }
+
+  /**
+   * Read the series of the symbol from the first {@code source.length()} bytes of its csv, or from its snapshot when
+   * enabled, without it being recorded as loaded
+   */
+  public PriceSeries read(Symbol symbol, Source source) throws IOException {
+    Resource resource = getResource(symbol);
+    return snapshotEnabled ? loadFromSnapshot(symbol, resource, source) : parse(symbol, resource, source);
+  }
+
+  /**
+   * @return number of bytes of the csv of the symbol its loaded series was read from, empty if it was never loaded
+   */
+  public OptionalLong loadedLength(Symbol symbol) {
+    Source source = loadedSources.get(symbol);
+    return source == null ? OptionalLong.empty() : OptionalLong.of(source.length());
+  }
+
+  /**
+   * Record that the loaded series of the symbol now reflects the first {@code length} bytes of its csv
+   */
+  public void appended(Symbol symbol, long length) {
+    loadedSources.computeIfPresent(symbol, (key, source) -> new Source(source.lastModified(), length));
+  }
+
+  /**
+   * @return counter moving whenever a series is loaded from a csv that changed since it was last loaded, or replaced or
+   * removed in the cache other than by a size eviction (see {@link #changed(Symbol)}), i.e. whenever the data changed
+   */
+  public long generation() {
+    return generation.get();
+  }
+
+  /**
+   * @return value of {@link #generation()} when the series of the symbol last changed, 0 if it never was loaded
+   */
+  public long generation(Symbol symbol) {
+    return generations.getOrDefault(symbol, 0L);
+  }
+
+  /**
+   * Record that the loaded series of the symbol was replaced or removed
+   */
+  public void changed(Symbol symbol) {
+    generations.merge(symbol, generation.incrementAndGet(), Math::max);
+  }
+
+  /**
+   * @return the directory holding the csv files, provided the data location is on the file system
+   */
+  public Path dataDirectory() throws IOException {
+    return resourceLoader.getResource(dataLocation).getFile().toPath();
+  }
+
+  /**
+   * @return the source cut after its last line terminator, as {@link WatchDirectoryIngestion} resumes from the length
+   * loaded and a trailing line without one may still be being written
+   */
+  private Source completeLines(Symbol symbol, Source source) throws IOException {
+    try (FileChannel channel = FileChannel.open(getResource(symbol).getFile().toPath(), StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocate(TAIL_BUFFER_SIZE);
+      long end = Math.min(source.length(), channel.size());
+      while (end > 0) {
+        long start = Math.max(0, end - buffer.capacity());
+        buffer.clear().limit((int) (end - start));
+        while (buffer.hasRemaining()) {
+          if (channel.read(buffer, start + buffer.position()) < 0) {
+            throw new EOFException("The csv of " + symbol + " was truncated while loading it");
+          }
+        }
+        for (int i = buffer.position() - 1; i >= 0; i--) {
+          if (buffer.get(i) == '\n') {
+            return new Source(source.lastModified(), start + i + 1);
+          }
+        }
+        end = start;
+      }
+      return new Source(source.lastModified(), 0);
+    }
+  }
+
+  private Resource getResource(Symbol symbol) {
+    return resourceLoader.getResource(dataLocation + symbol + FILE_SUFFIX);
+  }
+
+  private PriceSeries loadFromSnapshot(Symbol symbol, Resource resource, Source source) throws IOException {
+    if (!PriceSeriesSnapshot.supports(symbol)) {
+      logger.warn("Symbol name {} is too long for a snapshot, parsing its csv", symbol);
+      return parse(symbol, resource, source);
+    }
+    Path snapshot = Path.of(snapshotDirectory, symbol + ".bin");
+    Optional<PriceSeries> snapshotSeries =
+            PriceSeriesSnapshot.read(snapshot, symbol, source.lastModified(), source.length());
+    if (snapshotSeries.isPresent()) {
+      logger.info("Loading from snapshot {}", symbol);
+      return snapshotSeries.get();
+    }
+    PriceSeries series = parse(symbol, resource, source);
+    try {
+      PriceSeriesSnapshot.write(snapshot, series, source.lastModified(), source.length());
+    } catch (IOException e) {
+      logger.warn("Could not write snapshot {}", snapshot, e);
+    }
+    return series;
+  }
+
+  /**
+   * Parse the csv, recording the parse time ({@code crypto.csv.parse}), rows parsed ({@code crypto.csv.rows}) and
+   * rows per second ({@code crypto.csv.parse.throughput}) of the symbol
+   */
+  private PriceSeries parse(Symbol symbol, Resource resource, Source source) throws IOException {
+    logger.info("Loading from resource {}", symbol);
+    long start = System.nanoTime();
+    PriceSeries series;
+    try (InputStream inputStream = resource.getInputStream()) {
+      series = PriceCsvParser.parse(symbol, inputStream, source.length());
+    }
+    long elapsed = System.nanoTime() - start;
+    Timer.builder("crypto.csv.parse")
+            .description("Time to parse the csv of a symbol")
+            .tag("symbol", symbol.name())
+            .register(meterRegistry)
+            .record(elapsed, TimeUnit.NANOSECONDS);
+    Counter.builder("crypto.csv.rows")
+            .description("Rows parsed from the csv of a symbol")
+            .tag("symbol", symbol.name())
+            .register(meterRegistry)
+            .increment(series.size());
+    DistributionSummary.builder("crypto.csv.parse.throughput")
+            .description("Rows per second parsed from the csv of a symbol")
+            .baseUnit("rows/s")
+            .tag("symbol", symbol.name())
+            .register(meterRegistry)
+            .record(series.size() * 1e9 / Math.max(elapsed, 1));
+    return series;
+  }
+
+  public record Source(long lastModified, long length) {
+  }
+}
@@ -0,0 +1,101 @@
+package org.example.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.example.model.PriceSeries;
+import org.example.model.RankingWindow;
+import org.example.model.Symbol;
+import org.example.service.spec.AnalyticsService;
+import org.example.service.spec.CryptoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads and indexes the series of every symbol in parallel at startup, then runs the endpoint computations
+ * {@code warmup.iterations} times over the loaded data so that the JIT compiles them before the first requests.
+ * Runners complete before the application reports itself ready, so {@code /actuator/health/readiness} stays down
+ * until the warm-up is done. Each iteration computes every endpoint over the last 30 days of all the symbols, so it is
+ * off by default and runs once when enabled. Enabled with {@code warmup.enabled}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true")
+public class StartupWarmUp implements ApplicationRunner {
+
+  private final CryptoServiceImpl cryptoServiceImpl;
+  private final CryptoService cryptoService;
+  private final AnalyticsService analyticsService;
+  private final ObjectMapper objectMapper;
+  private static final Logger logger = LoggerFactory.getLogger(StartupWarmUp.class);
+
+  @Value("${warmup.iterations}")
+  private int iterations;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    long start = System.nanoTime();
+    List<PriceSeries> seriesList;
+    try {
+      seriesList = cryptoServiceImpl.series(null);
+      cryptoServiceImpl.marketView();
+    } catch (RuntimeException e) {
+      logger.warn("Warm-up failed to load the series, they will be loaded by the first requests", e);
+      return;
+    }
+    long loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    PriceSeries sample = seriesList.stream().filter(series -> series.size() > 0).findFirst().orElse(null);
+    if (sample != null) {
+      try {
+        for (int i = 0; i < iterations; i++) {
+          touch(sample.symbol(), Instant.ofEpochMilli(sample.timestamp(sample.size() - 1)));
+        }
+      } catch (Exception e) {
+        logger.warn("Warm-up of the computations failed", e);
+      }
+    }
+
+    logger.info("Warmed up {} symbols, {} ticks ({} bytes) in {} ms, loading them in {} ms",
+            seriesList.size(),
+            seriesList.stream().mapToLong(PriceSeries::size).sum(),
+            seriesList.stream().mapToLong(PriceSeries::columnBytes).sum(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+            loadMillis);
+  }
+
+  /**
+   * Compute and serialize the responses of the endpoints over the month up to the newest tick of the symbol
+   */
+  private void touch(Symbol symbol, Instant newest) throws Exception {
+    LocalDate day = LocalDate.ofInstant(newest, ZoneId.systemDefault());
+    YearMonth month = YearMonth.from(day);
+    Instant to = newest.plusMillis(1);
+    Instant from = to.minus(Duration.ofDays(30));
+    objectMapper.writeValueAsBytes(cryptoService.calculateNormalizedRangesAndSort(0, 1000));
+    objectMapper.writeValueAsBytes(cryptoService.streamNormalizedRangesAndSort(0, 1000).toList());
+    objectMapper.writeValueAsBytes(cryptoService.getStatisticsForCertainCrypto(symbol));
+    objectMapper.writeValueAsBytes(cryptoService.getStatisticsByMonthAndYear(month.getYear(), month.getMonthValue()));
+    objectMapper.writeValueAsBytes(cryptoService.getStatistics(null, List.of(month)));
+    objectMapper.writeValueAsBytes(cryptoService.getCryptoWithHighestNormalizedRange(day));
+    for (RankingWindow window : RankingWindow.values()) {
+      objectMapper.writeValueAsBytes(cryptoService.rankByNormalizedRange(window.label(), null));
+    }
+    objectMapper.writeValueAsBytes(cryptoService.getCandles(null, from, to, "1h"));
+    objectMapper.writeValueAsBytes(cryptoService.getCandles(null, from, to, "1d"));
+    objectMapper.writeValueAsBytes(analyticsService.getIndicators(null, from, to, "1h", 24));
+    objectMapper.writeValueAsBytes(analyticsService.getCorrelations(null, from, to, "1h"));
+  }
+}
@@ -0,0 +1,119 @@
+package org.example.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.model.Symbol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Symbols available in the data location, discovered from the {@code <SYMBOL>_values.csv} files found there. The
+ * discovery is repeated when older than {@code symbols.discovery.interval.minutes}, or on demand when a new csv shows
+ * up, so adding a symbol only takes adding its csv. Scans run under a lock rather than a monitor, as they read the
+ * data location and would pin a virtual thread.
+ */
+@Component
+@RequiredArgsConstructor
+public class SymbolRegistry {
+
+  private final ResourceLoader resourceLoader;
+  private static final Logger logger = LoggerFactory.getLogger(SymbolRegistry.class);
+
+  @Value("${crypto.data.location}")
+  private String dataLocation = "classpath:external/";
+
+  @Value("${symbols.discovery.interval.minutes}")
+  private long discoveryInterval = 10;
+
+  private final ReentrantLock discoveryLock = new ReentrantLock();
+  private volatile Discovery discovery;
+
+  /**
+   * @return the symbols available, ordered by name. The same list instance is returned until the symbols change.
+   */
+  public List<Symbol> symbols() {
+    return current().symbols();
+  }
+
+  /**
+   * @return the available symbol of that name, if any
+   */
+  public Optional<Symbol> find(String name) {
+    return Optional.ofNullable(current().byName().get(name));
+  }
+
+  /**
+   * Scan the data location for symbols now
+   */
+  public void discover() {
+    discoveryLock.lock();
+    try {
+      scan();
+    } finally {
+      discoveryLock.unlock();
+    }
+  }
+
+  private void scan() {
+    List<Symbol> symbols;
+    try {
+      Resource[] resources = ResourcePatternUtils.getResourcePatternResolver(resourceLoader)
+              .getResources(dataLocation + "*" + PriceSeriesLoader.FILE_SUFFIX);
+      symbols = Arrays.stream(resources)
+              .map(Resource::getFilename)
+              .filter(Objects::nonNull)
+              .map(name -> name.substring(0, name.length() - PriceSeriesLoader.FILE_SUFFIX.length()))
+              .filter(name -> !name.isBlank())
+              .map(Symbol::of)
+              .sorted()
+              .toList();
+    } catch (IOException e) {
+      if (discovery == null) {
+        throw new IllegalStateException("Could not discover symbols in " + dataLocation, e);
+      }
+      logger.warn("Could not discover symbols in {}, keeping {}", dataLocation, discovery.symbols(), e);
+      symbols = discovery.symbols();
+    }
+    if (discovery == null || !discovery.symbols().equals(symbols)) {
+      logger.info("Discovered {} symbols in {}", symbols.size(), dataLocation);
+      discovery = new Discovery(symbols, symbols.stream().collect(Collectors.toMap(Symbol::name, Function.identity())),
+              System.nanoTime());
+    } else {
+      discovery = new Discovery(discovery.symbols(), discovery.byName(), System.nanoTime());
+    }
+  }
+
+  private Discovery current() {
+    Discovery current = discovery;
+    if (current == null || System.nanoTime() - current.discoveredAt() > TimeUnit.MINUTES.toNanos(discoveryInterval)) {
+      discoveryLock.lock();
+      try {
+        if (discovery == current) {
+          scan();
+        }
+      } finally {
+        discoveryLock.unlock();
+      }
+      current = discovery;
+    }
+    return current;
+  }
+
+  private record Discovery(List<Symbol> symbols, Map<String, Symbol> byName, long discoveredAt) {
+  }
+}
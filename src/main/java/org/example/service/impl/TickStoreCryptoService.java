@@ -0,0 +1,123 @@
+package org.example.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.tuple.Pair;
+import org.example.exception.InvalidDateException;
+import org.example.exception.InvalidRequestException;
+import org.example.model.CacheStatistics;
+import org.example.model.Candle;
+import org.example.model.Crypto;
+import org.example.model.CryptoStatistics;
+import org.example.model.NormalizedRangeRank;
+import org.example.model.Symbol;
+import org.example.service.impl.store.TickStore;
+import org.example.service.impl.util.CryptoServiceUtil;
+import org.example.service.spec.CryptoService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * {@link CryptoService} answering the month, per symbol and daily statistics from the {@link TickStore} with SQL
+ * aggregates, the other operations being left to the cached series of {@link CryptoServiceImpl}
+ */
+@Service
+@Primary
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "tickstore.enabled", havingValue = "true")
+public class TickStoreCryptoService implements CryptoService {
+
+  private final CryptoServiceImpl cryptoService;
+  private final TickStore tickStore;
+
+  public List<Crypto> readCSVFiles(Symbol... symbols) {
+    return cryptoService.readCSVFiles(symbols);
+  }
+
+  public Map<String, List<Crypto>> getStatisticsByMonthAndYear(
+          Integer year, Integer month) throws InvalidDateException {
+    CryptoServiceUtil.validateYearMonthParameters(year, month);
+    List<Crypto> oldest = new ArrayList<>();
+    List<Crypto> newest = new ArrayList<>();
+    List<Crypto> minimum = new ArrayList<>();
+    List<Crypto> maximum = new ArrayList<>();
+    for (TickStore.Extremes extremes : tickStore.extremes(YearMonth.of(year, month))) {
+      oldest.add(extremes.oldest());
+      newest.add(extremes.newest());
+      minimum.add(extremes.min());
+      maximum.add(extremes.max());
+    }
+
+    Map<String, List<Crypto>> cryptoMap = new HashMap<>();
+    cryptoMap.put("OLDEST", oldest);
+    cryptoMap.put("NEWEST", newest);
+    cryptoMap.put("MINIMUM", minimum);
+    cryptoMap.put("MAXIMUM", maximum);
+    return cryptoMap;
+  }
+
+  public List<Pair<String, Crypto>> getStatisticsForCertainCrypto(Symbol crypto) {
+    TickStore.Extremes extremes = tickStore.extremes(crypto)
+            .orElseThrow(() -> new NoSuchElementException("No ticks for " + crypto));
+    List<Pair<String, Crypto>> cryptos = new ArrayList<>();
+    cryptos.add(Pair.of(crypto.name() + "-oldest", extremes.oldest()));
+    cryptos.add(Pair.of(crypto.name() + "-newest", extremes.newest()));
+    cryptos.add(Pair.of(crypto.name() + "-min", extremes.min()));
+    cryptos.add(Pair.of(crypto.name() + "-max", extremes.max()));
+    return cryptos;
+  }
+
+  public Map<Symbol, Map<String, CryptoStatistics>> getStatistics(List<Symbol> symbols, List<YearMonth> months) {
+    return cryptoService.getStatistics(symbols, months);
+  }
+
+  public Crypto getCryptoWithHighestNormalizedRange(LocalDate date) {
+    return tickStore.highestNormalizedRange(date).orElseThrow(() -> new DateTimeException("Invalid DateTime"));
+  }
+
+  public List<Double> getAllPrices(Symbol... symbols) {
+    return cryptoService.getAllPrices(symbols);
+  }
+
+  public List<Crypto> calculateNormalizedRangesAndSort() {
+    return cryptoService.calculateNormalizedRangesAndSort();
+  }
+
+  public List<Crypto> calculateNormalizedRangesAndSort(long offset, long limit) throws InvalidRequestException {
+    return cryptoService.calculateNormalizedRangesAndSort(offset, limit);
+  }
+
+  public Stream<Crypto> streamNormalizedRangesAndSort(long offset, long limit) throws InvalidRequestException {
+    return cryptoService.streamNormalizedRangesAndSort(offset, limit);
+  }
+
+  public List<NormalizedRangeRank> rankByNormalizedRange(String window, Integer top) throws InvalidRequestException {
+    return cryptoService.rankByNormalizedRange(window, top);
+  }
+
+  public List<Candle> getCandles(List<Symbol> symbols, Instant from, Instant to, String interval)
+          throws InvalidRequestException {
+    return cryptoService.getCandles(symbols, from, to, interval);
+  }
+
+  public Supplier<List<Candle>> prepareCandles(List<Symbol> symbols, Instant from, Instant to, String interval)
+          throws InvalidRequestException {
+    return cryptoService.prepareCandles(symbols, from, to, interval);
+  }
+
+  public CacheStatistics getCacheStatistics() {
+    return cryptoService.getCacheStatistics();
+  }
+}
@@ -0,0 +1,141 @@
+package org.example.service.impl;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.example.model.PriceSeries;
+import org.example.model.Symbol;
+import org.example.service.impl.util.PriceCsvParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Watches the directory of the csv files and tails the rows appended to them into the cached series: the new ticks
+ * are parsed from the offset the cached series was read up to and appended to it, leaving the other symbols cached
+ * as they are. Symbols not cached are left to be fully read on their next load, a csv getting shorter evicts its
+ * symbol and a new csv makes its symbol available. Enabled with {@code ingestion.watch.enabled}, the data location
+ * has to be a file system directory.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ingestion.watch.enabled", havingValue = "true")
+public class WatchDirectoryIngestion {
+
+  private final AsyncLoadingCache<Symbol, PriceSeries> cryptoDataCache;
+  private final PriceSeriesLoader priceSeriesLoader;
+  private final SymbolRegistry symbolRegistry;
+  private final MeterRegistry meterRegistry;
+  private static final Logger logger = LoggerFactory.getLogger(WatchDirectoryIngestion.class);
+
+  private Path directory;
+  private WatchService watchService;
+
+  @PostConstruct
+  public void start() throws IOException {
+    directory = priceSeriesLoader.dataDirectory();
+    watchService = FileSystems.getDefault().newWatchService();
+    directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    Thread.ofPlatform().daemon().name("crypto-ingestion").start(this::watch);
+    logger.info("Watching {}", directory);
+  }
+
+  @PreDestroy
+  public void stop() throws IOException {
+    watchService.close();
+  }
+
+  private void watch() {
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        for (WatchEvent<?> event : key.pollEvents()) {
+          if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            symbolRegistry.discover();
+            symbolRegistry.symbols().forEach(this::ingest);
+          } else {
+            symbolOf((Path) event.context(), event.kind() == StandardWatchEventKinds.ENTRY_CREATE)
+                    .ifPresent(this::ingest);
+          }
+        }
+        key.reset();
+      }
+    } catch (ClosedWatchServiceException | InterruptedException e) {
+      logger.info("Stopped watching {}", directory);
+    }
+  }
+
+  private void ingest(Symbol symbol) {
+    try {
+      cryptoDataCache.synchronous().asMap().computeIfPresent(symbol, this::append);
+    } catch (UncheckedIOException e) {
+      logger.warn("Could not ingest rows appended to {}", symbol, e.getCause());
+    }
+  }
+
+  /**
+   * @return the series with the rows appended since it was read, null to evict it if its csv got shorter
+   */
+  private PriceSeries append(Symbol symbol, PriceSeries series) {
+    OptionalLong loadedLength = priceSeriesLoader.loadedLength(symbol);
+    if (loadedLength.isEmpty()) {
+      return series;
+    }
+    long offset = loadedLength.getAsLong();
+    try (FileChannel channel = FileChannel.open(directory.resolve(symbol + PriceSeriesLoader.FILE_SUFFIX),
+            StandardOpenOption.READ)) {
+      if (channel.size() < offset) {
+        logger.info("Evicting {}, its csv was truncated", symbol);
+        return null;
+      }
+      InputStream inputStream = Channels.newInputStream(channel.position(offset));
+      PriceCsvParser.Ticks ticks = PriceCsvParser.parseAppended(inputStream, offset == 0);
+      if (ticks.length() == 0) {
+        return series;
+      }
+      priceSeriesLoader.appended(symbol, offset + ticks.length());
+      Counter.builder("crypto.ingestion.rows")
+              .description("Rows appended to the csv of a symbol and ingested")
+              .tag("symbol", symbol.name())
+              .register(meterRegistry)
+              .increment(ticks.size());
+      return series.append(ticks.timestamps(), ticks.prices(), ticks.size());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * @return the known symbol of that csv, discovering symbols again first if the csv was just created
+   */
+  private Optional<Symbol> symbolOf(Path file, boolean created) {
+    String name = file.getFileName().toString();
+    if (!name.endsWith(PriceSeriesLoader.FILE_SUFFIX)) {
+      return Optional.empty();
+    }
+    if (created) {
+      symbolRegistry.discover();
+    }
+    return symbolRegistry.find(name.substring(0, name.length() - PriceSeriesLoader.FILE_SUFFIX.length()));
+  }
+}
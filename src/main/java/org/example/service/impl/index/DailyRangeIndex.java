@@ -0,0 +1,161 @@
+package org.example.service.impl.index;
+
+import org.example.model.PriceSeries;
+import org.example.model.SeriesStatistics;
+import org.example.model.Symbol;
+
+import java.lang.ref.WeakReference;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Per calendar day, the {@link Symbol} with the highest intraday normalized range and the first entry of that day.
+ * Only the days of a symbol whose series changed are touched on update, and only the days of the appended entries when
+ * the new series extends the indexed one. The indexed series are only referenced weakly, so that the index does not
+ * keep the series evicted from the cache in memory, a symbol being fully indexed again when its series is gone. Equal
+ * ranges are won by the first symbol by name, as in the tick store.
+ */
+public class DailyRangeIndex {
+
+  private Indexed[] indexed = new Indexed[0];
+  private final Map<LocalDate, Day> days = new HashMap<>();
+
+  /**
+   * Make sure the index reflects the given series, re-indexing its symbol only if the series is not the one already
+   * indexed
+   */
+  public synchronized void update(PriceSeries series) {
+    int id = series.symbol().id();
+    if (id >= indexed.length) {
+      indexed = Arrays.copyOf(indexed, Math.max(id + 1, Symbol.count()));
+    }
+    Indexed previous = indexed[id];
+    PriceSeries previousSeries = previous == null ? null : previous.series().get();
+    if (previousSeries == series) {
+      return;
+    }
+    Set<LocalDate> indexedDays;
+    if (previousSeries != null && series.extendsFrom(previousSeries)) {
+      indexedDays = previous.days();
+      index(series, previousSeries.size(), indexedDays);
+    } else {
+      if (previous != null) {
+        clear(id, previous.days().stream().filter(day -> series.statistics(day).isEmpty()).toList());
+      }
+      indexedDays = new HashSet<>();
+      index(series, 0, indexedDays);
+    }
+    indexed[id] = new Indexed(new WeakReference<>(series), indexedDays);
+  }
+
+  /**
+   * Remove the entries of the symbols not in the given ones, which are no longer available
+   */
+  public synchronized void retain(Collection<Symbol> symbols) {
+    BitSet retained = new BitSet();
+    symbols.forEach(symbol -> retained.set(symbol.id()));
+    for (int id = 0; id < indexed.length; id++) {
+      if (indexed[id] != null && !retained.get(id)) {
+        clear(id, indexed[id].days());
+        indexed[id] = null;
+      }
+    }
+  }
+
+  /**
+   * @return first entry of the given day of the symbol with the highest intraday normalized range, with that range
+   */
+  public synchronized Optional<Entry> highest(LocalDate day) {
+    return Optional.ofNullable(days.get(day)).map(entry -> entry.bySymbol[entry.highest]);
+  }
+
+  private void clear(int id, Collection<LocalDate> symbolDays) {
+    for (LocalDate day : symbolDays) {
+      Day entry = days.get(day);
+      if (entry != null && entry.set(id, null)) {
+        days.remove(day);
+      }
+    }
+  }
+
+  private void index(PriceSeries series, int from, Set<LocalDate> indexedDays) {
+    if (from == series.size()) {
+      return;
+    }
+    int id = series.symbol().id();
+    LocalDate firstDay = LocalDate.ofInstant(Instant.ofEpochMilli(series.timestamp(from)), ZoneId.systemDefault());
+    series.dailyStatistics().tailMap(firstDay, true).forEach((day, statistics) -> {
+      days.computeIfAbsent(day, key -> new Day()).set(id, Entry.of(series, statistics));
+      indexedDays.add(day);
+    });
+  }
+
+  /**
+   * @param timestamp       epoch millis of the first entry of the day
+   * @param price           price of the first entry of the day
+   * @param normalizedRange intraday normalized range of the symbol
+   */
+  public record Entry(Symbol symbol, long timestamp, double price, double normalizedRange) {
+
+    private static Entry of(PriceSeries series, SeriesStatistics statistics) {
+      return new Entry(
+              series.symbol(),
+              series.timestamp(statistics.oldestIndex()),
+              series.price(statistics.oldestIndex()),
+              statistics.normalizedRange());
+    }
+  }
+
+  /**
+   * Series a symbol was last indexed from, and the days it has entries in
+   */
+  private record Indexed(WeakReference<PriceSeries> series, Set<LocalDate> days) {
+  }
+
+  /**
+   * Entries of a day per symbol id. Only scanned again when the range of the current highest goes down.
+   */
+  private static final class Day {
+
+    private Entry[] bySymbol = new Entry[0];
+    private int highest = -1;
+
+    /**
+     * @return whether the day has no entries left
+     */
+    private boolean set(int id, Entry entry) {
+      if (id >= bySymbol.length) {
+        bySymbol = Arrays.copyOf(bySymbol, Math.max(id + 1, Symbol.count()));
+      }
+      Entry previous = bySymbol[id];
+      bySymbol[id] = entry;
+      if (entry != null && (highest < 0 || isHigher(id, highest))) {
+        highest = id;
+      } else if (id == highest && (entry == null || entry.normalizedRange() < previous.normalizedRange())) {
+        highest = -1;
+        for (int i = 0; i < bySymbol.length; i++) {
+          if (bySymbol[i] != null && (highest < 0 || isHigher(i, highest))) {
+            highest = i;
+          }
+        }
+      }
+      return highest < 0;
+    }
+
+    private boolean isHigher(int id, int other) {
+      double range = bySymbol[id].normalizedRange();
+      double otherRange = bySymbol[other].normalizedRange();
+      return range > otherRange
+              || range == otherRange && bySymbol[id].symbol().compareTo(bySymbol[other].symbol()) < 0;
+    }
+  }
+}
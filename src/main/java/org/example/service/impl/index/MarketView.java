@@ -0,0 +1,128 @@
+package org.example.service.impl.index;
+
+import org.example.model.NormalizedRangeRank;
+import org.example.model.PriceSeries;
+import org.example.model.RankingWindow;
+import org.example.model.SeriesStatistics;
+import org.example.model.Symbol;
+import org.example.service.impl.util.CryptoServiceUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The symbols as of one generation of the loaded data, with the orderings across symbols computed once when the view
+ * is built, so that requests over all symbols do not sort them again. Only symbols and aggregates are kept, the
+ * series being left to the cache, which may evict them.
+ */
+public final class MarketView {
+
+  public static final Comparator<NormalizedRangeRank> RANKING_ORDER = Comparator
+          .comparingDouble(NormalizedRangeRank::normalizedRange).reversed()
+          .thenComparing(NormalizedRangeRank::symbol);
+
+  private final long generation;
+  private final long builtAt;
+  private final List<Symbol> symbols;
+  private final List<Symbol> byNormalizedRange;
+  private final long[] firstRows;
+  private final List<List<NormalizedRangeRank>> rankings;
+
+  /**
+   * @param series series of every one of the symbols, in the same order
+   */
+  public MarketView(long generation, List<Symbol> symbols, List<PriceSeries> series) {
+    this.generation = generation;
+    this.builtAt = System.nanoTime();
+    this.symbols = symbols;
+    List<PriceSeries> sorted = series.stream()
+            .sorted(Comparator.comparingDouble(MarketView::normalizedRange).reversed())
+            .toList();
+    this.byNormalizedRange = sorted.stream().map(PriceSeries::symbol).toList();
+    this.firstRows = new long[sorted.size() + 1];
+    for (int i = 0; i < sorted.size(); i++) {
+      firstRows[i + 1] = firstRows[i] + sorted.get(i).size();
+    }
+    this.rankings = Arrays.stream(RankingWindow.values()).map(window -> rank(series, window)).toList();
+  }
+
+  public long generation() {
+    return generation;
+  }
+
+  /**
+   * @return {@link System#nanoTime()} when the view was built
+   */
+  public long builtAt() {
+    return builtAt;
+  }
+
+  public List<Symbol> symbols() {
+    return symbols;
+  }
+
+  /**
+   * @return the symbols, ordered by the all time normalized range of their series, highest first
+   */
+  public List<Symbol> byNormalizedRange() {
+    return byNormalizedRange;
+  }
+
+  /**
+   * @return index in {@link #byNormalizedRange()} of the series holding the given row of their concatenation, the
+   * number of series if there is none
+   */
+  public int seriesOfRow(long row) {
+    int low = 0;
+    int high = firstRows.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (firstRows[mid] <= row) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low - 1;
+  }
+
+  /**
+   * @return number of rows of the series before the one at that index in {@link #byNormalizedRange()}
+   */
+  public long firstRow(int index) {
+    return firstRows[index];
+  }
+
+  /**
+   * @return number of rows the series at that index in {@link #byNormalizedRange()} had when the view was built
+   */
+  public int rows(int index) {
+    return (int) (firstRows[index + 1] - firstRows[index]);
+  }
+
+  /**
+   * @return symbols with entries within the window, ordered by {@link #RANKING_ORDER}
+   */
+  public List<NormalizedRangeRank> ranking(RankingWindow window) {
+    return rankings.get(window.ordinal());
+  }
+
+  private static List<NormalizedRangeRank> rank(List<PriceSeries> series, RankingWindow window) {
+    List<NormalizedRangeRank> ranking = new ArrayList<>(series.size());
+    for (PriceSeries priceSeries : series) {
+      priceSeries.statistics(window).ifPresent(statistics -> ranking.add(new NormalizedRangeRank(
+              priceSeries.symbol(),
+              statistics.normalizedRange(),
+              CryptoServiceUtil.toLocalDateTime(priceSeries.timestamp(statistics.oldestIndex())),
+              CryptoServiceUtil.toLocalDateTime(priceSeries.timestamp(statistics.newestIndex())))));
+    }
+    ranking.sort(RANKING_ORDER);
+    return List.copyOf(ranking);
+  }
+
+  private static double normalizedRange(PriceSeries series) {
+    return series.statistics().map(SeriesStatistics::normalizedRange).orElse(0d);
+  }
+}
@@ -0,0 +1,302 @@
+package org.example.service.impl.store;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.example.exception.CryptoDataLoadException;
+import org.example.model.Crypto;
+import org.example.model.PriceSeries;
+import org.example.model.SeriesStatistics;
+import org.example.model.Symbol;
+import org.example.service.impl.PriceSeriesLoader;
+import org.example.service.impl.SymbolRegistry;
+import org.example.service.impl.util.CryptoServiceUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ticks of every symbol persisted in an H2 table indexed on {@code (symbol, ts)} and {@code tick_date}, so that the
+ * statistics queries run in SQL instead of over cached series. The positions of the oldest, newest, min and max ticks
+ * of each symbol, overall and per month, are stored along with its ticks so that the statistics are primary key
+ * lookups rather than sorts of the ticks. The csv of a symbol is parsed and bulk
+ * loaded with JDBC batches only when it changed since it was stored (checked at most every
+ * {@code tickstore.sync.interval.minutes}), so a restart does not parse anything again. Enabled with
+ * {@code tickstore.enabled}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "tickstore.enabled", havingValue = "true")
+public class TickStore {
+
+  private static final String ALL_PERIOD = "all";
+  private static final String EXTREMES_QUERY = """
+          SELECT e.symbol,
+            oldest.ts AS oldest_ts, oldest.price AS oldest_price, newest.ts AS newest_ts, newest.price AS newest_price,
+            cheapest.ts AS min_ts, cheapest.price AS min_price, dearest.ts AS max_ts, dearest.price AS max_price
+          FROM tick_extremes e
+          JOIN tick oldest ON oldest.symbol = e.symbol AND oldest.seq = e.oldest_seq
+          JOIN tick newest ON newest.symbol = e.symbol AND newest.seq = e.newest_seq
+          JOIN tick cheapest ON cheapest.symbol = e.symbol AND cheapest.seq = e.min_seq
+          JOIN tick dearest ON dearest.symbol = e.symbol AND dearest.seq = e.max_seq
+          WHERE %s
+          ORDER BY e.symbol""";
+  private static final String HIGHEST_RANGE_QUERY = """
+          SELECT highest.symbol, highest.normalized_range, tick.ts, tick.price FROM (
+            SELECT symbol, (MAX(price) - MIN(price)) / MIN(price) AS normalized_range, MIN(seq) AS first_seq
+            FROM tick WHERE tick_date = ?
+            GROUP BY symbol
+            ORDER BY normalized_range DESC, symbol
+            LIMIT 1) highest
+          JOIN tick ON tick.symbol = highest.symbol AND tick.seq = highest.first_seq""";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final PriceSeriesLoader priceSeriesLoader;
+  private final SymbolRegistry symbolRegistry;
+  private static final Logger logger = LoggerFactory.getLogger(TickStore.class);
+
+  @Value("${tickstore.batch.size}")
+  private int batchSize;
+
+  @Value("${tickstore.sync.interval.minutes}")
+  private long syncInterval;
+
+  private final ReentrantLock syncLock = new ReentrantLock();
+  private final AtomicLong generation = new AtomicLong();
+  private long syncedAt;
+  private boolean synced;
+
+  @PostConstruct
+  public void createSchema() {
+    jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+      new ResourceDatabasePopulator(new ClassPathResource("tickstore/schema.sql")).populate(connection);
+      return null;
+    });
+  }
+
+  /**
+   * @return oldest/newest/min/max ticks within the month of every symbol having some, ordered by symbol
+   */
+  public List<Extremes> extremes(YearMonth month) {
+    syncIfStale();
+    return jdbcTemplate.query(EXTREMES_QUERY.formatted("e.period = ?"), TickStore::toExtremes, month.toString());
+  }
+
+  /**
+   * @return all time oldest/newest/min/max ticks of the symbol, empty if it has none
+   */
+  public Optional<Extremes> extremes(Symbol symbol) {
+    syncIfStale();
+    return jdbcTemplate.query(EXTREMES_QUERY.formatted("e.period = ? AND e.symbol = ?"), TickStore::toExtremes,
+                    ALL_PERIOD, symbol.name())
+            .stream()
+            .findFirst();
+  }
+
+  /**
+   * @return first tick of the day of the symbol with the highest intraday normalized range, holding that range
+   */
+  public Optional<Crypto> highestNormalizedRange(LocalDate day) {
+    syncIfStale();
+    return jdbcTemplate.query(HIGHEST_RANGE_QUERY, (resultSet, row) -> new Crypto(
+                    CryptoServiceUtil.toLocalDateTime(resultSet.getLong("ts")),
+                    Symbol.of(resultSet.getString("symbol")),
+                    resultSet.getDouble("price"),
+                    resultSet.getDouble("normalized_range")), day)
+            .stream()
+            .findFirst();
+  }
+
+  /**
+   * @return counter incremented whenever the ticks of a symbol are stored or deleted, after syncing if stale, so that
+   * responses computed from the store can tell they are outdated
+   */
+  public long generation() {
+    syncIfStale();
+    return generation.get();
+  }
+
+  /**
+   * Store the ticks of every symbol whose csv changed since it was stored, and forget the symbols no longer available.
+   * Runs under a lock rather than a monitor, as the database writes would pin a virtual thread.
+   */
+  public void sync() {
+    syncLock.lock();
+    try {
+      syncSources();
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private void syncSources() {
+    String zone = ZoneId.systemDefault().getId();
+    Map<String, StoredSource> storedSources = new HashMap<>();
+    jdbcTemplate.query("SELECT symbol, last_modified, length, zone FROM tick_source", resultSet -> {
+      storedSources.put(resultSet.getString("symbol"), new StoredSource(
+              new PriceSeriesLoader.Source(resultSet.getLong("last_modified"), resultSet.getLong("length")),
+              resultSet.getString("zone")));
+    });
+
+    List<Symbol> failedSymbols = new ArrayList<>();
+    IOException failure = null;
+    for (Symbol symbol : symbolRegistry.symbols()) {
+      try {
+        PriceSeriesLoader.Source source = priceSeriesLoader.source(symbol);
+        if (!new StoredSource(source, zone).equals(storedSources.remove(symbol.name()))) {
+          store(priceSeriesLoader.read(symbol, source), source, zone);
+        }
+      } catch (IOException e) {
+        failedSymbols.add(symbol);
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    storedSources.keySet().forEach(this::delete);
+    if (!failedSymbols.isEmpty()) {
+      throw new CryptoDataLoadException(failedSymbols, failure);
+    }
+    syncedAt = System.nanoTime();
+    synced = true;
+  }
+
+  private void syncIfStale() {
+    syncLock.lock();
+    try {
+      if (!synced || System.nanoTime() - syncedAt > TimeUnit.MINUTES.toNanos(syncInterval)) {
+        syncSources();
+      }
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private void store(PriceSeries series, PriceSeriesLoader.Source source, String zone) {
+    logger.info("Storing {} ticks of {}", series.size(), series.symbol());
+    String symbol = series.symbol().name();
+    jdbcTemplate.execute((ConnectionCallback<Void>) connection -> inTransaction(connection, () -> {
+      deleteTicks(connection, symbol);
+      try (PreparedStatement insert = connection.prepareStatement(
+              "INSERT INTO tick (symbol, seq, ts, tick_date, price) VALUES (?, ?, ?, ?, ?)")) {
+        int batched = 0;
+        for (Map.Entry<LocalDate, SeriesStatistics> day : series.dailyStatistics().entrySet()) {
+          for (int i = day.getValue().oldestIndex(); i <= day.getValue().newestIndex(); i++) {
+            insert.setString(1, symbol);
+            insert.setInt(2, i);
+            insert.setLong(3, series.timestamp(i));
+            insert.setObject(4, day.getKey());
+            insert.setDouble(5, series.price(i));
+            insert.addBatch();
+            if (++batched % batchSize == 0) {
+              insert.executeBatch();
+            }
+          }
+        }
+        insert.executeBatch();
+      }
+      try (PreparedStatement insert = connection.prepareStatement(
+              "INSERT INTO tick_extremes (symbol, period, oldest_seq, newest_seq, min_seq, max_seq) " +
+                      "VALUES (?, ?, ?, ?, ?, ?)")) {
+        Map<String, SeriesStatistics> periods = new LinkedHashMap<>();
+        series.statistics().ifPresent(statistics -> periods.put(ALL_PERIOD, statistics));
+        series.monthlyStatistics().forEach((month, statistics) -> periods.put(month.toString(), statistics));
+        for (Map.Entry<String, SeriesStatistics> period : periods.entrySet()) {
+          insert.setString(1, symbol);
+          insert.setString(2, period.getKey());
+          insert.setInt(3, period.getValue().oldestIndex());
+          insert.setInt(4, period.getValue().newestIndex());
+          insert.setInt(5, period.getValue().minIndex());
+          insert.setInt(6, period.getValue().maxIndex());
+          insert.addBatch();
+        }
+        insert.executeBatch();
+      }
+      try (PreparedStatement insert = connection.prepareStatement(
+              "INSERT INTO tick_source (symbol, last_modified, length, zone) VALUES (?, ?, ?, ?)")) {
+        insert.setString(1, symbol);
+        insert.setLong(2, source.lastModified());
+        insert.setLong(3, source.length());
+        insert.setString(4, zone);
+        insert.executeUpdate();
+      }
+    }));
+    generation.incrementAndGet();
+  }
+
+  private void delete(String symbol) {
+    logger.info("Deleting ticks of {}", symbol);
+    jdbcTemplate.execute((ConnectionCallback<Void>) connection ->
+            inTransaction(connection, () -> deleteTicks(connection, symbol)));
+    generation.incrementAndGet();
+  }
+
+  private static void deleteTicks(Connection connection, String symbol) throws SQLException {
+    for (String table : List.of("tick", "tick_extremes", "tick_source")) {
+      try (PreparedStatement delete = connection.prepareStatement("DELETE FROM " + table + " WHERE symbol = ?")) {
+        delete.setString(1, symbol);
+        delete.executeUpdate();
+      }
+    }
+  }
+
+  private static Void inTransaction(Connection connection, SqlWork work) throws SQLException {
+    boolean autoCommit = connection.getAutoCommit();
+    connection.setAutoCommit(false);
+    try {
+      work.run();
+      connection.commit();
+    } catch (SQLException | RuntimeException e) {
+      connection.rollback();
+      throw e;
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+    return null;
+  }
+
+  private static Extremes toExtremes(ResultSet resultSet, int row) throws SQLException {
+    Symbol symbol = Symbol.of(resultSet.getString("symbol"));
+    return new Extremes(
+            toCrypto(resultSet, symbol, "oldest"),
+            toCrypto(resultSet, symbol, "newest"),
+            toCrypto(resultSet, symbol, "min"),
+            toCrypto(resultSet, symbol, "max"));
+  }
+
+  private static Crypto toCrypto(ResultSet resultSet, Symbol symbol, String prefix) throws SQLException {
+    return new Crypto(CryptoServiceUtil.toLocalDateTime(resultSet.getLong(prefix + "_ts")), symbol,
+            resultSet.getDouble(prefix + "_price"), null);
+  }
+
+  public record Extremes(Crypto oldest, Crypto newest, Crypto min, Crypto max) {
+  }
+
+  private record StoredSource(PriceSeriesLoader.Source source, String zone) {
+  }
+
+  @FunctionalInterface
+  private interface SqlWork {
+    void run() throws SQLException;
+  }
+}
@@ -1,12 +1,52 @@
 package org.example.service.impl.util;
 
+import org.example.exception.InvalidDateException;
+import org.example.model.Candle;
+import org.example.model.CandleInterval;
 import org.example.model.Crypto;
+import org.example.model.CryptoStatistics;
+import org.example.model.PriceSeries;
+import org.example.model.SeriesStatistics;
 
-import java.util.Comparator;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 
 public class CryptoServiceUtil {
 
-  public static final Comparator<Crypto> COMPARING_TIMESTAMP = Comparator.comparing(Crypto::getTimestamp);
-  public static final Comparator<Crypto> COMPARING_PRICE = Comparator.comparing(Crypto::getPrice);
   public static final String CACHE_NAME = "cryptoData";
+
+  public static LocalDateTime toLocalDateTime(long epochMilli) {
+    return Instant.ofEpochMilli(epochMilli).atZone(ZoneId.systemDefault()).toLocalDateTime();
+  }
+
+  public static Crypto toCrypto(PriceSeries series, int index) {
+    return toCrypto(series, index, null);
+  }
+
+  public static Crypto toCrypto(PriceSeries series, int index, Double normalizedRange) {
+    return new Crypto(toLocalDateTime(series.timestamp(index)), series.symbol(), series.price(index), normalizedRange);
+  }
+
+  public static CryptoStatistics toStatistics(PriceSeries series, SeriesStatistics statistics) {
+    return new CryptoStatistics(
+            toCrypto(series, statistics.oldestIndex()),
+            toCrypto(series, statistics.newestIndex()),
+            toCrypto(series, statistics.minIndex()),
+            toCrypto(series, statistics.maxIndex()));
+  }
+
+  public static Candle toCandle(PriceSeries series, SeriesStatistics bucket, CandleInterval interval) {
+    ZonedDateTime oldest = Instant.ofEpochMilli(series.timestamp(bucket.oldestIndex())).atZone(ZoneId.systemDefault());
+    return new Candle(series.symbol(), interval.bucketStart(oldest).toLocalDateTime(),
+            series.price(bucket.oldestIndex()), series.price(bucket.maxIndex()), series.price(bucket.minIndex()),
+            series.price(bucket.newestIndex()), bucket.newestIndex() - bucket.oldestIndex() + 1);
+  }
+
+  public static void validateYearMonthParameters(Integer year, Integer month) throws InvalidDateException {
+    if (year == null || month == null || year < 0 || month < 1 || month > 12) {
+      throw new InvalidDateException("Invalid year or month");
+    }
+  }
 }
@@ -0,0 +1,231 @@
+package org.example.service.impl.util;
+
+import org.example.model.PriceSeries;
+import org.example.model.Symbol;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Parser for the fixed {@code timestamp,symbol,price} csv format. Bytes are scanned in place and numbers are parsed
+ * straight from them into primitive columns, without creating a String per field. Lines with less than three fields
+ * are skipped, the first line of a file is the header.
+ */
+public final class PriceCsvParser {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int INITIAL_CAPACITY = 1 << 10;
+  private static final int MAX_FAST_DIGITS = 18;
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+  private static final double[] POWERS_OF_TEN = {
+          1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+          1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  private long[] timestamps = new long[INITIAL_CAPACITY];
+  private double[] prices = new double[INITIAL_CAPACITY];
+  private int size;
+  private int lineNumber;
+
+  private PriceCsvParser() {
+  }
+
+  public static PriceSeries parse(Symbol symbol, InputStream inputStream) throws IOException {
+    return parse(symbol, inputStream, Long.MAX_VALUE);
+  }
+
+  /**
+   * Parse a whole csv file, reading at most {@code length} bytes of it
+   */
+  public static PriceSeries parse(Symbol symbol, InputStream inputStream, long length) throws IOException {
+    PriceCsvParser parser = new PriceCsvParser();
+    parser.read(inputStream, length, true);
+    return PriceSeries.of(symbol, parser.timestamps, parser.prices, parser.size);
+  }
+
+  /**
+   * Parse rows appended to a csv file, the stream being positioned at the start of a line, its first line being the
+   * header when {@code fromStart}. A trailing line without line terminator may still be being written, so it is left
+   * for the next call.
+   */
+  public static Ticks parseAppended(InputStream inputStream, boolean fromStart) throws IOException {
+    PriceCsvParser parser = new PriceCsvParser();
+    parser.lineNumber = fromStart ? 0 : 1;
+    long length = parser.read(inputStream, Long.MAX_VALUE, false);
+    return new Ticks(parser.timestamps, parser.prices, parser.size, length);
+  }
+
+  /**
+   * Rows parsed by {@link #parseAppended(InputStream, boolean)}: the first {@code size} entries of the columns, read from the
+   * first {@code length} bytes of the stream
+   */
+  public record Ticks(long[] timestamps, double[] prices, int size, long length) {
+  }
+
+  /**
+   * @return number of bytes of the lines read
+   */
+  private long read(InputStream inputStream, long limit, boolean readLastLine) throws IOException {
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int length = 0;
+    long remaining = limit;
+    long linesLength = 0;
+    int read;
+    while (remaining > 0
+            && (read = inputStream.read(buffer, length, (int) Math.min(buffer.length - length, remaining))) != -1) {
+      remaining -= read;
+      length += read;
+      int consumed = readLines(buffer, length);
+      linesLength += consumed;
+      length -= consumed;
+      System.arraycopy(buffer, consumed, buffer, 0, length);
+      if (length == buffer.length) {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+    }
+    if (length > 0 && readLastLine) {
+      readLine(buffer, 0, length);
+      linesLength += length;
+    }
+    return linesLength;
+  }
+
+  private int readLines(byte[] buffer, int length) throws IOException {
+    int lineStart = 0;
+    for (int i = 0; i < length; i++) {
+      if (buffer[i] == '\n') {
+        readLine(buffer, lineStart, i);
+        lineStart = i + 1;
+      }
+    }
+    return lineStart;
+  }
+
+  private void readLine(byte[] buffer, int start, int end) throws IOException {
+    if (lineNumber++ == 0) {
+      return;
+    }
+    if (end > start && buffer[end - 1] == '\r') {
+      end--;
+    }
+    int firstComma = indexOf(buffer, start, end);
+    int secondComma = firstComma < 0 ? -1 : indexOf(buffer, firstComma + 1, end);
+    if (secondComma < 0) {
+      return;
+    }
+    int thirdComma = indexOf(buffer, secondComma + 1, end);
+    long timestamp = parseLong(buffer, start, firstComma);
+    double price = parseDouble(buffer, secondComma + 1, thirdComma < 0 ? end : thirdComma);
+    if (size == timestamps.length) {
+      timestamps = Arrays.copyOf(timestamps, size * 2);
+      prices = Arrays.copyOf(prices, size * 2);
+    }
+    timestamps[size] = timestamp;
+    prices[size] = price;
+    size++;
+  }
+
+  private long parseLong(byte[] buffer, int start, int end) throws IOException {
+    start = skipLeadingWhitespace(buffer, start, end);
+    end = skipTrailingWhitespace(buffer, start, end);
+    boolean negative = start < end && buffer[start] == '-';
+    int digitsStart = negative ? start + 1 : start;
+    if (digitsStart == end || end - digitsStart > MAX_FAST_DIGITS) {
+      return parseLongSlow(buffer, start, end);
+    }
+    long value = 0;
+    for (int i = digitsStart; i < end; i++) {
+      int digit = buffer[i] - '0';
+      if (digit < 0 || digit > 9) {
+        return parseLongSlow(buffer, start, end);
+      }
+      value = value * 10 + digit;
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Parses {@code [-]digits[.digits]} exactly when the digits fit in a double mantissa and the fraction has at most 22
+   * digits, in which case a single division by an exact power of ten is correctly rounded. Anything else is handed to
+   * {@link Double#parseDouble(String)}.
+   */
+  private double parseDouble(byte[] buffer, int start, int end) throws IOException {
+    start = skipLeadingWhitespace(buffer, start, end);
+    end = skipTrailingWhitespace(buffer, start, end);
+    boolean negative = start < end && buffer[start] == '-';
+    long mantissa = 0;
+    int significantDigits = 0;
+    int fractionDigits = 0;
+    boolean seenDigit = false;
+    boolean seenDot = false;
+    for (int i = negative ? start + 1 : start; i < end; i++) {
+      byte current = buffer[i];
+      if (current == '.' && !seenDot) {
+        seenDot = true;
+        continue;
+      }
+      int digit = current - '0';
+      if (digit < 0 || digit > 9) {
+        return parseDoubleSlow(buffer, start, end);
+      }
+      seenDigit = true;
+      mantissa = mantissa * 10 + digit;
+      if (mantissa != 0 && ++significantDigits > MAX_FAST_DIGITS) {
+        return parseDoubleSlow(buffer, start, end);
+      }
+      if (seenDot) {
+        fractionDigits++;
+      }
+    }
+    if (!seenDigit || mantissa > MAX_EXACT_MANTISSA || fractionDigits >= POWERS_OF_TEN.length) {
+      return parseDoubleSlow(buffer, start, end);
+    }
+    double value = mantissa / POWERS_OF_TEN[fractionDigits];
+    return negative ? -value : value;
+  }
+
+  private long parseLongSlow(byte[] buffer, int start, int end) throws IOException {
+    try {
+      return Long.parseLong(new String(buffer, start, end - start, StandardCharsets.US_ASCII));
+    } catch (NumberFormatException e) {
+      throw invalidNumber(e);
+    }
+  }
+
+  private double parseDoubleSlow(byte[] buffer, int start, int end) throws IOException {
+    try {
+      return Double.parseDouble(new String(buffer, start, end - start, StandardCharsets.US_ASCII));
+    } catch (NumberFormatException e) {
+      throw invalidNumber(e);
+    }
+  }
+
+  private IOException invalidNumber(NumberFormatException e) {
+    return new IOException("Invalid number on line " + lineNumber + ": " + e.getMessage(), e);
+  }
+
+  private static int indexOf(byte[] buffer, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (buffer[i] == ',') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int skipLeadingWhitespace(byte[] buffer, int start, int end) {
+    while (start < end && (buffer[start] == ' ' || buffer[start] == '\t')) {
+      start++;
+    }
+    return start;
+  }
+
+  private static int skipTrailingWhitespace(byte[] buffer, int start, int end) {
+    while (end > start && (buffer[end - 1] == ' ' || buffer[end - 1] == '\t')) {
+      end--;
+    }
+    return end;
+  }
+}
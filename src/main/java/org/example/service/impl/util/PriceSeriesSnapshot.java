@@ -0,0 +1,122 @@
+package org.example.service.impl.util;
+
+import org.example.model.PriceSeries;
+import org.example.model.Symbol;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Binary columnar snapshot of a {@link PriceSeries}: a fixed size header followed by the packed epoch millis and the
+ * packed prices, little endian. The header records the last modification time and the length of the csv the series
+ * was parsed from, so a snapshot of an older csv is recognized as stale.
+ */
+public final class PriceSeriesSnapshot {
+
+  private static final int MAGIC = 0x43525053;
+  private static final int VERSION = 1;
+  private static final int SYMBOL_BYTES = 32;
+  private static final int HEADER_BYTES = 64;
+
+  private PriceSeriesSnapshot() {
+  }
+
+  /**
+   * @return whether the name of the symbol fits in the header, the series of other symbols having no snapshot
+   */
+  public static boolean supports(Symbol symbol) {
+    return symbol.name().getBytes(StandardCharsets.UTF_8).length <= SYMBOL_BYTES;
+  }
+
+  /**
+   * Map the snapshot file and bulk copy its columns
+   *
+   * @return the series, empty if there is no snapshot or it does not match the given symbol and source csv
+   */
+  public static Optional<PriceSeries> read(
+          Path file, Symbol symbol, long sourceLastModified, long sourceLength) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES) {
+        return Optional.empty();
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+              || !symbol.name().equals(readSymbol(buffer))
+              || buffer.getLong() != sourceLastModified || buffer.getLong() != sourceLength) {
+        return Optional.empty();
+      }
+      int size = buffer.getInt();
+      if (channel.size() != HEADER_BYTES + (long) size * (Long.BYTES + Double.BYTES)) {
+        return Optional.empty();
+      }
+      long[] timestamps = new long[size];
+      double[] prices = new double[size];
+      buffer.position(HEADER_BYTES).asLongBuffer().get(timestamps);
+      buffer.position(Math.toIntExact(HEADER_BYTES + (long) size * Long.BYTES)).asDoubleBuffer().get(prices);
+      return Optional.of(PriceSeries.of(symbol, timestamps, prices, size));
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Write the snapshot next to its final location first and move it in place, so readers never see a partial file
+   */
+  public static void write(Path file, PriceSeries series, long sourceLastModified, long sourceLength)
+          throws IOException {
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    Path temporaryFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+    try {
+      int size = series.size();
+      try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        MappedByteBuffer buffer = channel.map(
+                FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_BYTES + (long) size * (Long.BYTES + Double.BYTES));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION);
+        writeSymbol(buffer, series.symbol());
+        buffer.putLong(sourceLastModified).putLong(sourceLength).putInt(size);
+        buffer.position(HEADER_BYTES);
+        for (int i = 0; i < size; i++) {
+          buffer.putLong(series.timestamp(i));
+        }
+        for (int i = 0; i < size; i++) {
+          buffer.putDouble(series.price(i));
+        }
+        buffer.force();
+      }
+      Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+  }
+
+  private static String readSymbol(ByteBuffer buffer) {
+    byte[] bytes = new byte[SYMBOL_BYTES];
+    buffer.get(bytes);
+    int length = 0;
+    while (length < SYMBOL_BYTES && bytes[length] != 0) {
+      length++;
+    }
+    return new String(bytes, 0, length, StandardCharsets.UTF_8);
+  }
+
+  private static void writeSymbol(ByteBuffer buffer, Symbol symbol) {
+    byte[] bytes = symbol.name().getBytes(StandardCharsets.UTF_8);
+    if (!supports(symbol)) {
+      throw new IllegalArgumentException("Symbol name too long for a snapshot: " + symbol.name());
+    }
+    buffer.put(bytes).put(new byte[SYMBOL_BYTES - bytes.length]);
+  }
+}
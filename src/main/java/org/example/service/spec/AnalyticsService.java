@@ -0,0 +1,60 @@
+package org.example.service.spec;
+
+import org.example.exception.InvalidRequestException;
+import org.example.model.CorrelationMatrix;
+import org.example.model.IndicatorPoint;
+import org.example.model.Symbol;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Rolling analytics over the closes of the symbols resampled to a {@link org.example.model.CandleInterval}
+ */
+public interface AnalyticsService {
+
+  /**
+   * Compute the return, SMA, EMA and volatility of the symbols at every bucket
+   *
+   * @param symbols  names of the crypto currency, all available ones if empty
+   * @param from     start of the range, inclusive, from the oldest entry if null
+   * @param to       end of the range, exclusive, up to the newest entry if null
+   * @param interval label of the {@link org.example.model.CandleInterval} (1h, 1d or 1w)
+   * @param window   number of buckets the averages and the volatility are computed over
+   * @return per symbol, {@link IndicatorPoint}s of the buckets having entries, oldest first
+   */
+  Map<Symbol, List<IndicatorPoint>> getIndicators(
+          List<Symbol> symbols, Instant from, Instant to, String interval, int window) throws InvalidRequestException;
+
+  /**
+   * Validate the parameters of {@link #getIndicators} and load the series of the symbols, the returned supplier only
+   * computing the indicators so that it can run on another thread without waiting for any load
+   *
+   * @return supplier of the indicators of {@link #getIndicators}
+   */
+  Supplier<Map<Symbol, List<IndicatorPoint>>> prepareIndicators(
+          List<Symbol> symbols, Instant from, Instant to, String interval, int window) throws InvalidRequestException;
+
+  /**
+   * Correlate the bucket returns of every pair of symbols, over the buckets both have entries in
+   *
+   * @param symbols  names of the crypto currency, all available ones if empty
+   * @param from     start of the range, inclusive, from the oldest entry if null
+   * @param to       end of the range, exclusive, up to the newest entry if null
+   * @param interval label of the {@link org.example.model.CandleInterval} (1h, 1d or 1w)
+   * @return {@link CorrelationMatrix} of the symbols
+   */
+  CorrelationMatrix getCorrelations(List<Symbol> symbols, Instant from, Instant to, String interval)
+          throws InvalidRequestException;
+
+  /**
+   * Validate the parameters of {@link #getCorrelations} and load the series of the symbols, the returned supplier only
+   * computing the correlations so that it can run on another thread without waiting for any load
+   *
+   * @return supplier of the matrix of {@link #getCorrelations}
+   */
+  Supplier<CorrelationMatrix> prepareCorrelations(List<Symbol> symbols, Instant from, Instant to, String interval)
+          throws InvalidRequestException;
+}
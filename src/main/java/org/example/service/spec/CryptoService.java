@@ -1,15 +1,23 @@
 package org.example.service.spec;
 
-import com.opencsv.exceptions.CsvValidationException;
 import org.apache.commons.lang3.tuple.Pair;
 import org.example.exception.InvalidDateException;
+import org.example.exception.InvalidRequestException;
+import org.example.model.CacheStatistics;
+import org.example.model.Candle;
 import org.example.model.Crypto;
+import org.example.model.CryptoStatistics;
+import org.example.model.NormalizedRangeRank;
 import org.example.model.Symbol;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Recommendation service
@@ -43,13 +51,23 @@ public interface CryptoService {
    */
   List<Pair<String, Crypto>> getStatisticsForCertainCrypto(Symbol symbol);
 
+  /**
+   * Compute the all time statistics and the statistics of each of the months of several symbols at once
+   *
+   * @param symbols names of the crypto currency, all available ones if empty
+   * @param months  months to include besides the all time statistics
+   * @return per symbol, {@link CryptoStatistics} keyed by "all" or by month (yyyy-MM), months without entries being
+   * left out
+   */
+  Map<Symbol, Map<String, CryptoStatistics>> getStatistics(List<Symbol> symbols, List<YearMonth> months);
+
   /**
    * Get all prices for one or more symbols
    *
    * @param symbols: names of the crypto currency
    * @return {@link List} of Double
    */
-  List<Double> getAllPrices(Symbol... symbols) throws CsvValidationException;
+  List<Double> getAllPrices(Symbol... symbols);
 
   /**
    * Calculates and sort all cruyptos by normalized ranges
@@ -59,10 +77,66 @@ public interface CryptoService {
   List<Crypto> calculateNormalizedRangesAndSort();
 
   /**
-   * Calculate and returns the crypto with highest normalized range for a certain {@link LocalDate}
+   * Page of {@link #calculateNormalizedRangesAndSort()}
+   *
+   * @param offset number of cryptos to skip
+   * @param limit  maximum number of cryptos to return
+   * @return {@link List} of {@link Crypto} sorted by normalized ranges
+   */
+  List<Crypto> calculateNormalizedRangesAndSort(long offset, long limit) throws InvalidRequestException;
+
+  /**
+   * Lazily create the page of {@link #calculateNormalizedRangesAndSort()}, one {@link Crypto} at a time, from the
+   * cached series
+   *
+   * @param offset number of cryptos to skip
+   * @param limit  maximum number of cryptos to return
+   * @return {@link Stream} of {@link Crypto} sorted by normalized ranges
+   */
+  Stream<Crypto> streamNormalizedRangesAndSort(long offset, long limit) throws InvalidRequestException;
+
+  /**
+   * Returns the crypto with highest intraday normalized range for a certain {@link LocalDate}
    *
    * @param date for which the search will occur
-   * @return {@link Crypto} with highest normalized range
+   * @return first {@link Crypto} of that day for the symbol with highest normalized range
    */
   Crypto getCryptoWithHighestNormalizedRange(LocalDate date);
+
+  /**
+   * Rank symbols by their normalized range within a trailing time window
+   *
+   * @param window label of the {@link org.example.model.RankingWindow} (24h, 7d, 30d or all)
+   * @param top    maximum number of symbols to return, all if null
+   * @return {@link List} of {@link NormalizedRangeRank}, highest normalized range first
+   */
+  List<NormalizedRangeRank> rankByNormalizedRange(String window, Integer top) throws InvalidRequestException;
+
+  /**
+   * OHLC candles of the symbols over a time range
+   *
+   * @param symbols  names of the crypto currency, all available ones if empty
+   * @param from     start of the range, inclusive
+   * @param to       end of the range, exclusive
+   * @param interval label of the {@link org.example.model.CandleInterval} (1h, 1d or 1w)
+   * @return {@link List} of {@link Candle} ordered by symbol then bucket, buckets without entries being left out
+   */
+  List<Candle> getCandles(List<Symbol> symbols, Instant from, Instant to, String interval)
+          throws InvalidRequestException;
+
+  /**
+   * Validate the parameters of {@link #getCandles} and load the series of the symbols, the returned supplier only
+   * bucketing them so that it can run on another thread without waiting for any load
+   *
+   * @return supplier of the candles of {@link #getCandles}
+   */
+  Supplier<List<Candle>> prepareCandles(List<Symbol> symbols, Instant from, Instant to, String interval)
+          throws InvalidRequestException;
+
+  /**
+   * Hit/miss/load statistics of the crypto data cache
+   *
+   * @return {@link CacheStatistics} collected since startup
+   */
+  CacheStatistics getCacheStatistics();
 }
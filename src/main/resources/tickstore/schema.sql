@@ -0,0 +1,29 @@
+CREATE TABLE IF NOT EXISTS tick (
+    symbol    VARCHAR(64)      NOT NULL,
+    seq       INT              NOT NULL,
+    ts        BIGINT           NOT NULL,
+    tick_date DATE             NOT NULL,
+    price     DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (symbol, seq)
+);
+
+CREATE INDEX IF NOT EXISTS tick_symbol_ts ON tick (symbol, ts);
+
+CREATE INDEX IF NOT EXISTS tick_date ON tick (tick_date);
+
+CREATE TABLE IF NOT EXISTS tick_extremes (
+    symbol     VARCHAR(64) NOT NULL,
+    period     VARCHAR(7)  NOT NULL,
+    oldest_seq INT         NOT NULL,
+    newest_seq INT         NOT NULL,
+    min_seq    INT         NOT NULL,
+    max_seq    INT         NOT NULL,
+    PRIMARY KEY (period, symbol)
+);
+
+CREATE TABLE IF NOT EXISTS tick_source (
+    symbol        VARCHAR(64) PRIMARY KEY,
+    last_modified BIGINT      NOT NULL,
+    length        BIGINT      NOT NULL,
+    zone          VARCHAR(64) NOT NULL
+);
@@ -0,0 +1,157 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PriceSeriesTest {
+
+  private static final Symbol SYMBOL = Symbol.of("BTC");
+  private static final long HOUR = 3_600_000L;
+
+  @Test
+  void appendingNewerEntriesMatchesBuildingFromAllOfThem() {
+    Ticks ticks = Ticks.random(3000, 1);
+    for (boolean compressed : new boolean[]{false, true}) {
+      for (int split : new int[]{0, 1, 700, 1500, 2999, 3000}) {
+        PriceSeries appended = build(ticks.range(0, split), compressed).append(
+                ticks.range(split, 3000).timestamps(), ticks.range(split, 3000).prices(), 3000 - split);
+        assertSameSeries(ticks.series(), appended);
+      }
+    }
+  }
+
+  @Test
+  void appendingInChunksMatchesBuildingFromAllOfThem() {
+    Ticks ticks = Ticks.random(3000, 2);
+    for (boolean compressed : new boolean[]{false, true}) {
+      PriceSeries series = build(ticks.range(0, 0), compressed);
+      int size = 0;
+      for (int chunk : new int[]{1, 1, 30, 400, 1, 700, 24, 1843}) {
+        Ticks appended = ticks.range(size, size + chunk);
+        PriceSeries previous = series;
+        series = series.append(appended.timestamps(), appended.prices(), chunk);
+        assertSameSeries(ticks.range(0, size).series(), previous);
+        size += chunk;
+        assertSameSeries(ticks.range(0, size).series(), series);
+      }
+    }
+  }
+
+  @Test
+  void appendingOlderOrUnsortedEntriesRebuildsTheSeries() {
+    Ticks ticks = Ticks.random(2000, 3);
+    Ticks newer = ticks.range(1000, 2000);
+    Ticks older = ticks.range(0, 1000);
+    Ticks unsorted = ticks.range(1000, 2000).shuffled(4);
+    for (boolean compressed : new boolean[]{false, true}) {
+      PriceSeries appended = build(newer, compressed).append(older.timestamps(), older.prices(), 1000);
+      assertSameSeries(newer.concat(older).series(), appended);
+      assertEquals(compressed, appended.blocks() != null);
+
+      appended = build(older, compressed).append(unsorted.timestamps(), unsorted.prices(), 1000);
+      assertSameSeries(older.concat(unsorted).series(), appended);
+      assertEquals(compressed, appended.blocks() != null);
+    }
+  }
+
+  @Test
+  void appendingToAnAlreadyExtendedSeriesLeavesTheSharedColumnsAlone() {
+    Ticks ticks = Ticks.random(1200, 5);
+    Ticks first = ticks.range(0, 1000);
+    Ticks second = ticks.range(1000, 1100);
+    Ticks third = ticks.range(1100, 1200);
+    Ticks other = new Ticks(third.timestamps(), Arrays.stream(third.prices()).map(price -> price * 2).toArray());
+
+    PriceSeries base = first.series().append(second.timestamps(), second.prices(), 100);
+    PriceSeries extended = base.append(third.timestamps(), third.prices(), 100);
+    PriceSeries branched = base.append(other.timestamps(), other.prices(), 100);
+
+    assertSameSeries(first.concat(second).series(), base);
+    assertSameSeries(first.concat(second).concat(third).series(), extended);
+    assertSameSeries(first.concat(second).concat(other).series(), branched);
+    assertEquals(base.columnBytes(), extended.columnBytes());
+    assertNotEquals(base.columnBytes(), branched.columnBytes());
+    assertSame(base, base.append(new long[0], new double[0], 0));
+  }
+
+  private static PriceSeries build(Ticks ticks, boolean compressed) {
+    PriceSeries series = ticks.series();
+    return compressed ? series.compressed() : series;
+  }
+
+  private static void assertSameSeries(PriceSeries expected, PriceSeries actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.timestamp(i), actual.timestamp(i), "timestamp " + i);
+      assertEquals(expected.price(i), actual.price(i), "price " + i);
+    }
+    assertEquals(expected.statistics(), actual.statistics());
+    for (RankingWindow window : RankingWindow.values()) {
+      assertEquals(expected.statistics(window), actual.statistics(window), window.label());
+    }
+    assertEquals(expected.monthlyStatistics(), actual.monthlyStatistics());
+    assertEquals(expected.dailyStatistics(), actual.dailyStatistics());
+  }
+
+  /**
+   * Time sorted ticks, every few minutes to a few hours apart with some sharing a timestamp, over months. Prices are
+   * whole and bounded, so that min and max prices repeat and ties are taken in order.
+   */
+  record Ticks(long[] timestamps, double[] prices) {
+
+    static Ticks random(int size, long seed) {
+      Random random = new Random(seed);
+      long[] timestamps = new long[size];
+      double[] prices = new double[size];
+      long timestamp = LocalDateTime.of(2022, 1, 30, 22, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+      double price = 100;
+      for (int i = 0; i < size; i++) {
+        timestamp += random.nextInt(10) == 0 ? 0 : random.nextLong(5 * HOUR);
+        price = Math.max(90, Math.min(110, Math.round(price + random.nextGaussian())));
+        timestamps[i] = timestamp;
+        prices[i] = price;
+      }
+      return new Ticks(timestamps, prices);
+    }
+
+    Ticks range(int from, int to) {
+      return new Ticks(Arrays.copyOfRange(timestamps, from, to), Arrays.copyOfRange(prices, from, to));
+    }
+
+    Ticks concat(Ticks other) {
+      long[] allTimestamps = Arrays.copyOf(timestamps, timestamps.length + other.timestamps.length);
+      double[] allPrices = Arrays.copyOf(prices, prices.length + other.prices.length);
+      System.arraycopy(other.timestamps, 0, allTimestamps, timestamps.length, other.timestamps.length);
+      System.arraycopy(other.prices, 0, allPrices, prices.length, other.prices.length);
+      return new Ticks(allTimestamps, allPrices);
+    }
+
+    Ticks shuffled(long seed) {
+      Random random = new Random(seed);
+      long[] shuffledTimestamps = timestamps.clone();
+      double[] shuffledPrices = prices.clone();
+      for (int i = shuffledTimestamps.length - 1; i > 0; i--) {
+        int j = random.nextInt(i + 1);
+        long timestamp = shuffledTimestamps[i];
+        shuffledTimestamps[i] = shuffledTimestamps[j];
+        shuffledTimestamps[j] = timestamp;
+        double price = shuffledPrices[i];
+        shuffledPrices[i] = shuffledPrices[j];
+        shuffledPrices[j] = price;
+      }
+      return new Ticks(shuffledTimestamps, shuffledPrices);
+    }
+
+    PriceSeries series() {
+      return PriceSeries.of(SYMBOL, timestamps, prices, timestamps.length);
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TickBlocksTest {
+
+  private static final long START = 1640995200000L;
+  private static final long HOUR = 3_600_000L;
+  private static final int[] SIZES = {0, 1, 2, TickBlocks.BLOCK_SIZE - 1, TickBlocks.BLOCK_SIZE,
+          TickBlocks.BLOCK_SIZE + 1, 3 * TickBlocks.BLOCK_SIZE + 17};
+
+  @Test
+  void encodedColumnsDecodeToTheOriginalOnes() {
+    for (int size : SIZES) {
+      Ticks ticks = Ticks.random(size, size);
+      assertColumns(ticks, TickBlocks.encode(ticks.timestamps(), ticks.prices(), size));
+    }
+  }
+
+  @Test
+  void specialPricesAndTimestampJumpsDecodeToTheOriginalOnes() {
+    long[] timestamps = {Long.MIN_VALUE, -1, 0, 0, 0, 1, START, START + Long.MAX_VALUE / 2, START - HOUR,
+            Long.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE + 1, 42};
+    double[] prices = {Double.NaN, -1.5, -0.0, 0.0, 0.0, Double.NEGATIVE_INFINITY, 46813.21, 46813.21,
+            Double.MIN_VALUE, Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.longBitsToDouble(0x7ff8000000000001L),
+            -46813.21};
+    Ticks ticks = new Ticks(timestamps, prices, timestamps.length);
+    assertColumns(ticks, TickBlocks.encode(timestamps, prices, timestamps.length));
+  }
+
+  @Test
+  void appendingAcrossBlockBoundariesEncodesLikeTheWholeColumns() {
+    int[] chunks = {1, TickBlocks.BLOCK_SIZE - 2, 1, TickBlocks.BLOCK_SIZE, 3, 2 * TickBlocks.BLOCK_SIZE + 5, 7};
+    Ticks ticks = Ticks.random(Arrays.stream(chunks).sum(), 7);
+    TickBlocks blocks = TickBlocks.encode(ticks.timestamps(), ticks.prices(), 0);
+    int size = 0;
+    for (int chunk : chunks) {
+      TickBlocks previous = blocks;
+      blocks = blocks.append(Arrays.copyOfRange(ticks.timestamps(), size, size + chunk),
+              Arrays.copyOfRange(ticks.prices(), size, size + chunk), chunk);
+      assertColumns(ticks.first(size), previous);
+      size += chunk;
+      assertColumns(ticks.first(size), blocks);
+      assertEquals(TickBlocks.encode(ticks.timestamps(), ticks.prices(), size).encodedBytes(), blocks.encodedBytes());
+    }
+  }
+
+  @Test
+  void compressedSeriesHasTheStatisticsOfThePlainOne() {
+    for (int size : SIZES) {
+      Ticks ticks = Ticks.random(size, 31 + size);
+      PriceSeries plain = PriceSeries.of(Symbol.of("BTC"), ticks.timestamps(), ticks.prices(), size);
+      PriceSeries compressed = plain.compressed();
+      Random random = new Random(size);
+      for (int i = 0; i < 500 && size > 0; i++) {
+        int from = random.nextInt(size);
+        int to = i % 5 == 0 ? size : from + 1 + random.nextInt(size - from);
+        assertEquals(SeriesStatistics.of(plain, from, to), SeriesStatistics.of(compressed, from, to),
+                "range " + from + "-" + to + " of " + size);
+      }
+      if (size > 0) {
+        assertEquals(SeriesStatistics.of(plain, 0, size), SeriesStatistics.of(compressed, 0, size));
+      }
+    }
+  }
+
+  @Test
+  void compressedSeriesHasTheLowerBoundsOfThePlainOne() {
+    for (int size : SIZES) {
+      Ticks ticks = Ticks.random(size, 57 + size);
+      PriceSeries plain = PriceSeries.of(Symbol.of("BTC"), ticks.timestamps(), ticks.prices(), size);
+      PriceSeries compressed = plain.compressed();
+      for (long probe : probes(ticks)) {
+        int expected = 0;
+        while (expected < size && ticks.timestamps()[expected] < probe) {
+          expected++;
+        }
+        assertEquals(expected, plain.lowerBound(probe), "plain lower bound of " + probe);
+        assertEquals(expected, compressed.lowerBound(probe), "compressed lower bound of " + probe);
+      }
+    }
+  }
+
+  private static long[] probes(Ticks ticks) {
+    long[] probes = new long[3 * ticks.size() + 2];
+    probes[0] = Long.MIN_VALUE;
+    probes[1] = Long.MAX_VALUE;
+    for (int i = 0; i < ticks.size(); i++) {
+      probes[3 * i + 2] = ticks.timestamps()[i] - 1;
+      probes[3 * i + 3] = ticks.timestamps()[i];
+      probes[3 * i + 4] = ticks.timestamps()[i] + 1;
+    }
+    return probes;
+  }
+
+  /**
+   * Check every entry in a random order, so that they are not all read from the last decoded block, then all of them
+   * at once
+   */
+  private static void assertColumns(Ticks expected, TickBlocks blocks) {
+    assertEquals(expected.size(), blocks.size());
+    int[] order = new Random(expected.size()).ints(expected.size() * 2L, 0, Math.max(1, expected.size())).toArray();
+    for (int index : order) {
+      assertEquals(expected.timestamps()[index], blocks.timestamp(index), "timestamp " + index);
+      assertEquals(Double.doubleToRawLongBits(expected.prices()[index]),
+              Double.doubleToRawLongBits(blocks.price(index)), "price " + index);
+    }
+    long[] timestamps = new long[expected.size()];
+    double[] prices = new double[expected.size()];
+    blocks.copyTo(timestamps, prices);
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.timestamps()[i], timestamps[i], "copied timestamp " + i);
+      assertEquals(Double.doubleToRawLongBits(expected.prices()[i]), Double.doubleToRawLongBits(prices[i]),
+              "copied price " + i);
+    }
+  }
+
+  /**
+   * Time sorted ticks, mostly hourly with repeated timestamps and jumps of years, and prices moving, repeating, going
+   * negative or being NaN
+   */
+  private record Ticks(long[] timestamps, double[] prices, int size) {
+
+    private static Ticks random(int size, long seed) {
+      Random random = new Random(seed);
+      long[] timestamps = new long[size];
+      double[] prices = new double[size];
+      long timestamp = START;
+      double price = 100;
+      for (int i = 0; i < size; i++) {
+        int kind = random.nextInt(20);
+        timestamp += switch (kind) {
+          case 0 -> 0;
+          case 1 -> 3650L * 24 * HOUR + random.nextInt(1000);
+          case 2 -> random.nextInt(1000);
+          default -> HOUR;
+        };
+        price = switch (kind) {
+          case 3, 4 -> price;
+          case 5 -> -price;
+          default -> Math.round((price + random.nextGaussian()) * 100) / 100d;
+        };
+        timestamps[i] = timestamp;
+        prices[i] = kind == 6 ? Double.NaN : price;
+      }
+      return new Ticks(timestamps, prices, size);
+    }
+
+    private Ticks first(int count) {
+      return new Ticks(timestamps, prices, count);
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package org.example.service.impl.index;
+
+import org.example.model.PriceSeries;
+import org.example.model.Symbol;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DailyRangeIndexTest {
+
+  private static final List<Symbol> SYMBOLS = List.of(Symbol.of("BTC"), Symbol.of("ETH"), Symbol.of("DOGE"));
+  private static final LocalDate FIRST_DAY = LocalDate.of(2022, 1, 28);
+  private static final int DAYS = 20;
+  private static final int SIZE = 400;
+
+  @Test
+  void appendedSeriesHaveTheDailyWinnersOfSeriesBuiltFromAllEntries() {
+    DailyRangeIndex index = new DailyRangeIndex();
+    List<PriceSeries> series = new ArrayList<>();
+    for (int i = 0; i < SYMBOLS.size(); i++) {
+      series.add(series(SYMBOLS.get(i), i, 0, SIZE / 3));
+      index.update(series.get(i));
+    }
+    for (int split : new int[]{SIZE / 3, SIZE / 2, SIZE - 1}) {
+      for (int i = 0; i < SYMBOLS.size(); i++) {
+        PriceSeries previous = series.get(i);
+        PriceSeries appended = series(SYMBOLS.get(i), i, previous.size(), split);
+        series.set(i, previous.append(timestamps(appended), prices(appended), appended.size()));
+        index.update(series.get(i));
+      }
+      assertSameWinners(indexOf(0, split), index);
+    }
+  }
+
+  @Test
+  void rebuiltSeriesHaveTheDailyWinnersOfSeriesBuiltFromAllEntries() {
+    DailyRangeIndex index = new DailyRangeIndex();
+    for (int i = 0; i < SYMBOLS.size(); i++) {
+      index.update(series(SYMBOLS.get(i), i, SIZE / 2, SIZE));
+    }
+    for (int i = 0; i < SYMBOLS.size(); i++) {
+      PriceSeries newer = series(SYMBOLS.get(i), i, SIZE / 2, SIZE);
+      PriceSeries older = series(SYMBOLS.get(i), i, 0, SIZE / 2);
+      index.update(newer.append(timestamps(older), prices(older), older.size()));
+    }
+    assertSameWinners(indexOf(0, SIZE), index);
+  }
+
+  @Test
+  void replacedSeriesLeaveNoWinnersOnTheDaysTheyNoLongerHave() {
+    DailyRangeIndex index = new DailyRangeIndex();
+    for (int i = 0; i < SYMBOLS.size(); i++) {
+      index.update(series(SYMBOLS.get(i), i, 0, SIZE));
+    }
+    for (int i = 0; i < SYMBOLS.size(); i++) {
+      index.update(series(SYMBOLS.get(i), i, SIZE / 4, SIZE / 2));
+    }
+    assertSameWinners(indexOf(SIZE / 4, SIZE / 2), index);
+  }
+
+  @Test
+  void removedSymbolsLeaveNoWinners() {
+    DailyRangeIndex index = indexOf(0, SIZE);
+    index.retain(SYMBOLS.subList(1, SYMBOLS.size()));
+    DailyRangeIndex expected = new DailyRangeIndex();
+    for (int i = 1; i < SYMBOLS.size(); i++) {
+      expected.update(series(SYMBOLS.get(i), i, 0, SIZE));
+    }
+    assertSameWinners(expected, index);
+
+    index.retain(List.of());
+    for (LocalDate day = FIRST_DAY; day.isBefore(FIRST_DAY.plusDays(DAYS)); day = day.plusDays(1)) {
+      assertEquals(Optional.empty(), index.highest(day), day.toString());
+    }
+  }
+
+  @Test
+  void equalRangesAreWonByTheFirstSymbolByName() {
+    Symbol later = Symbol.of("ZZZ");
+    Symbol earlier = Symbol.of("AAA");
+    long timestamp = FIRST_DAY.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    DailyRangeIndex index = new DailyRangeIndex();
+    index.update(PriceSeries.of(later, new long[]{timestamp, timestamp + 1}, new double[]{10, 20}, 2));
+    index.update(PriceSeries.of(earlier, new long[]{timestamp, timestamp + 1}, new double[]{1, 2}, 2));
+    assertEquals(earlier, index.highest(FIRST_DAY).orElseThrow().symbol());
+  }
+
+  private static DailyRangeIndex indexOf(int from, int to) {
+    DailyRangeIndex index = new DailyRangeIndex();
+    for (int i = 0; i < SYMBOLS.size(); i++) {
+      index.update(series(SYMBOLS.get(i), i, from, to));
+    }
+    return index;
+  }
+
+  private static void assertSameWinners(DailyRangeIndex expected, DailyRangeIndex actual) {
+    for (LocalDate day = FIRST_DAY.minusDays(1); day.isBefore(FIRST_DAY.plusDays(DAYS + 2)); day = day.plusDays(1)) {
+      assertEquals(expected.highest(day), actual.highest(day), day.toString());
+    }
+  }
+
+  private static long[] timestamps(PriceSeries series) {
+    long[] timestamps = new long[series.size()];
+    Arrays.setAll(timestamps, series::timestamp);
+    return timestamps;
+  }
+
+  private static double[] prices(PriceSeries series) {
+    double[] prices = new double[series.size()];
+    Arrays.setAll(prices, series::price);
+    return prices;
+  }
+
+  /**
+   * Entries {@code [from, to)} of the ticks of the symbol, about one an hour over {@link #DAYS} days
+   */
+  private static PriceSeries series(Symbol symbol, int seed, int from, int to) {
+    Random random = new Random(seed);
+    long[] timestamps = new long[SIZE];
+    double[] prices = new double[SIZE];
+    long timestamp = FIRST_DAY.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    double price = 100;
+    for (int i = 0; i < SIZE; i++) {
+      timestamp += random.nextLong(DAYS * 24 * 3_600_000L / SIZE * 2);
+      price = Math.max(1, price + random.nextGaussian() * 3);
+      timestamps[i] = timestamp;
+      prices[i] = price;
+    }
+    return PriceSeries.of(symbol, Arrays.copyOfRange(timestamps, from, to), Arrays.copyOfRange(prices, from, to),
+            to - from);
+  }
+}